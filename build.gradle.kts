@@ -1,5 +1,6 @@
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.example"
@@ -18,4 +19,17 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    // Allocation per operation is reported next to the timings
+    profilers.add("gc")
+    // Machine-readable results to diff between builds, e.g. ./gradlew jmh --offline -PjmhInclude=ResultHandling
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    findProperty("jmhInclude")?.let { includes.add(it.toString()) }
+    findProperty("voskModel")?.let {
+        benchmarkParameters.put("modelPath", objects.listProperty<String>().value(listOf(it.toString())))
+    }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Deterministic test audio for the benchmarks, so they run without any recordings on disk.
+// Bursts of harmonic "voiced" sound separated by short pauses: not words, but it keeps the
+// recognizer busy the way speech does and produces both partial and final results.
+final class BenchmarkAudio {
+
+    private BenchmarkAudio() {
+    }
+
+    static byte[] syntheticSpeech(double seconds) {
+        int samples = (int) (seconds * Transcriber.SAMPLE_RATE);
+        ByteBuffer pcm = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        long seed = 42;
+
+        for (int i = 0; i < samples; i++) {
+            double t = i / (double) Transcriber.SAMPLE_RATE;
+            // 1.5 s of sound, then 0.5 s of near silence
+            boolean voiced = t % 2.0 < 1.5;
+            // Pitch wanders between 110 and 190 Hz like a speaking voice
+            double pitch = 150 + 40 * Math.sin(2 * Math.PI * 0.7 * t);
+            double sample = 0;
+            if (voiced) {
+                for (int harmonic = 1; harmonic <= 6; harmonic++) {
+                    sample += Math.sin(2 * Math.PI * pitch * harmonic * t) / harmonic;
+                }
+                sample *= 4000 * (0.6 + 0.4 * Math.sin(2 * Math.PI * 4 * t));
+            }
+            // A little noise so the silence is not digital zero
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            sample += ((seed >>> 40) % 200) - 100;
+
+            pcm.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample)));
+        }
+        return pcm.array();
+    }
+
+    // 16 kHz mono 16-bit WAV, the format AudioFileTranscriber reads without conversion
+    static Path writeWav(byte[] pcm) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + pcm.length);
+        header.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        header.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16);
+        header.putShort((short) WavFile.FORMAT_PCM).putShort((short) Transcriber.CHANNELS);
+        header.putInt(Transcriber.SAMPLE_RATE).putInt(Transcriber.BYTES_PER_SECOND);
+        header.putShort((short) (Transcriber.CHANNELS * 2)).putShort((short) Transcriber.SAMPLE_SIZE_BITS);
+        header.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(pcm.length);
+
+        Path wav = Files.createTempFile("vosk-benchmark-", ".wav");
+        wav.toFile().deleteOnExit();
+        byte[] file = new byte[44 + pcm.length];
+        System.arraycopy(header.array(), 0, file, 0, 44);
+        System.arraycopy(pcm, 0, file, 44, pcm.length);
+        Files.write(wav, file);
+        return wav;
+    }
+}
@@ -0,0 +1,27 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.LibVosk;
+import org.vosk.LogLevel;
+import org.vosk.Model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+final class BenchmarkModels {
+
+    // Small enough to load in a second, override with ./gradlew jmh -PvoskModel=<dir>
+    static final String DEFAULT_MODEL = "models/vosk-model-small-en-us-0.15";
+
+    private BenchmarkModels() {
+    }
+
+    static Model load(String modelPath) throws IOException {
+        if (!Files.isDirectory(Paths.get(modelPath))) {
+            throw new IllegalStateException("Benchmark model not found: " + modelPath
+                    + " (unpack a model from https://alphacephei.com/vosk/models into models/)");
+        }
+        LibVosk.setLogLevel(LogLevel.WARNINGS);
+        return new Model(modelPath);
+    }
+}
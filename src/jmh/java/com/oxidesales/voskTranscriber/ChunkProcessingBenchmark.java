@@ -0,0 +1,81 @@
+package com.oxidesales.voskTranscriber;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vosk.Model;
+import org.vosk.Recognizer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// MicrophoneStreamProcessor.processAudioChunk at the chunk sizes a capture loop might use,
+// from 32 ms to 500 ms of audio. The score is time per chunk; divide by the chunk's
+// duration (chunkSize / 32000 s) to compare sizes as a real-time factor.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ChunkProcessingBenchmark {
+
+    @Param(BenchmarkModels.DEFAULT_MODEL)
+    public String modelPath;
+
+    @Param({"1024", "4096", "8192", "16000"})
+    public int chunkSize;
+
+    private Model voskModel;
+
+    private Recognizer recognizer;
+
+    private MicrophoneStreamProcessor streamProcessor;
+
+    private byte[] audio;
+
+    private byte[] chunk;
+
+    private int position;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        voskModel = BenchmarkModels.load(modelPath);
+        recognizer = new Recognizer(voskModel, Transcriber.SAMPLE_RATE);
+
+        TranscriptionRecognizerResultHandler resultHandler = new TranscriptionRecognizerResultHandler();
+        resultHandler.setConsoleOutput(false);
+        streamProcessor = new MicrophoneStreamProcessor(recognizer, resultHandler, null, new AtomicBoolean(false));
+
+        audio = BenchmarkAudio.syntheticSpeech(60);
+        chunk = new byte[chunkSize];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        recognizer.close();
+        voskModel.close();
+    }
+
+    // Walks through the clip so the recognizer sees continuous audio, not one chunk on repeat
+    @Benchmark
+    public void processAudioChunk() {
+        if (position + chunkSize > audio.length) {
+            position = 0;
+        }
+        System.arraycopy(audio, position, chunk, 0, chunkSize);
+        position += chunkSize;
+        streamProcessor.processAudioChunk(chunk, chunkSize);
+    }
+}
@@ -0,0 +1,92 @@
+package com.oxidesales.voskTranscriber;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vosk.Model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end AudioFileTranscriber.transcribeFile on one file. The audioSeconds counter is
+// reported per second of wall time, so it reads directly as "x real time"; the real-time
+// factor is its inverse.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class FileTranscriptionBenchmark {
+
+    @Param(BenchmarkModels.DEFAULT_MODEL)
+    public String modelPath;
+
+    // A recording to use instead of the synthetic clip, empty for the synthetic one
+    @Param("")
+    public String audioFile;
+
+    @Param("30")
+    public int syntheticSeconds;
+
+    private Model voskModel;
+
+    private RecognizerPool recognizerPool;
+
+    private AudioFileTranscriber audioFileTranscriber;
+
+    private String benchmarkFile;
+
+    private double fileSeconds;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Audio {
+        public double audioSeconds;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            audioSeconds = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        voskModel = BenchmarkModels.load(modelPath);
+        recognizerPool = new RecognizerPool(voskModel, 1);
+        audioFileTranscriber = new AudioFileTranscriber(recognizerPool);
+
+        if (audioFile.isEmpty()) {
+            Path wav = BenchmarkAudio.writeWav(BenchmarkAudio.syntheticSpeech(syntheticSeconds));
+            benchmarkFile = wav.toString();
+        } else {
+            benchmarkFile = audioFile;
+        }
+        fileSeconds = audioFileTranscriber.transcribeFileWithStats(benchmarkFile).getAudioSeconds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        recognizerPool.close();
+        voskModel.close();
+    }
+
+    @Benchmark
+    public String transcribeFile(Audio audio) throws IOException {
+        String text = audioFileTranscriber.transcribeFile(benchmarkFile);
+        audio.audioSeconds += fileSeconds;
+        return text;
+    }
+}
@@ -0,0 +1,111 @@
+package com.oxidesales.voskTranscriber;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Jackson readTree against VoskResultDecoder on the results Vosk produces after each chunk.
+// Run with ./gradlew jmh, the gc profiler adds gc.alloc.rate.norm (bytes per operation).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultDecodingBenchmark {
+
+    private static final String PARTIAL_RESULT = "{\n  \"partial\" : \"the quick brown fox jumps over\"\n}";
+
+    private static final String FINAL_RESULT = "{\n  \"text\" : \"the quick brown fox jumps over the lazy dog\"\n}";
+
+    private static final String FINAL_RESULT_WITH_WORDS = "{\n"
+            + "  \"result\" : [{\n"
+            + "      \"conf\" : 1.000000,\n"
+            + "      \"end\" : 0.420000,\n"
+            + "      \"start\" : 0.120000,\n"
+            + "      \"word\" : \"the\"\n"
+            + "    }, {\n"
+            + "      \"conf\" : 0.981250,\n"
+            + "      \"end\" : 0.810000,\n"
+            + "      \"start\" : 0.420000,\n"
+            + "      \"word\" : \"quick\"\n"
+            + "    }, {\n"
+            + "      \"conf\" : 0.996700,\n"
+            + "      \"end\" : 1.230000,\n"
+            + "      \"start\" : 0.810000,\n"
+            + "      \"word\" : \"brown\"\n"
+            + "    }, {\n"
+            + "      \"conf\" : 1.000000,\n"
+            + "      \"end\" : 1.650000,\n"
+            + "      \"start\" : 1.230000,\n"
+            + "      \"word\" : \"fox\"\n"
+            + "    }],\n"
+            + "  \"text\" : \"the quick brown fox\"\n"
+            + "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final VoskResultDecoder resultDecoder = new VoskResultDecoder();
+
+    private String lastPartial = "the quick brown fox jumps over";
+
+    @Benchmark
+    public String partialReadTree() throws IOException {
+        JsonNode node = objectMapper.readTree(PARTIAL_RESULT);
+        String partial = node.get("partial").asText().trim();
+        return partial.equals(lastPartial) ? lastPartial : partial;
+    }
+
+    @Benchmark
+    public CharSequence partialDecoder() throws IOException {
+        resultDecoder.decode(PARTIAL_RESULT);
+        return resultDecoder.textEquals(lastPartial) ? lastPartial : resultDecoder.textString();
+    }
+
+    @Benchmark
+    public String finalReadTree() throws IOException {
+        return objectMapper.readTree(FINAL_RESULT).get("text").asText().trim();
+    }
+
+    @Benchmark
+    public String finalDecoder() throws IOException {
+        resultDecoder.decode(FINAL_RESULT);
+        return resultDecoder.textString();
+    }
+
+    @Benchmark
+    public void wordsReadTree(Blackhole blackhole) throws IOException {
+        JsonNode node = objectMapper.readTree(FINAL_RESULT_WITH_WORDS);
+        for (JsonNode word : node.get("result")) {
+            blackhole.consume(word.get("word").asText());
+            blackhole.consume(word.get("start").asDouble());
+            blackhole.consume(word.get("end").asDouble());
+            blackhole.consume(word.get("conf").asDouble());
+        }
+        blackhole.consume(node.get("text").asText().trim());
+    }
+
+    @Benchmark
+    public void wordsDecoder(Blackhole blackhole) throws IOException {
+        resultDecoder.decode(FINAL_RESULT_WITH_WORDS);
+        for (int i = 0; i < resultDecoder.wordCount(); i++) {
+            blackhole.consume(resultDecoder.wordLength(i));
+            blackhole.consume(resultDecoder.wordStart(i));
+            blackhole.consume(resultDecoder.wordEnd(i));
+            blackhole.consume(resultDecoder.wordConfidence(i));
+        }
+        blackhole.consume(resultDecoder.text());
+    }
+}
@@ -0,0 +1,74 @@
+package com.oxidesales.voskTranscriber;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// TranscriptionRecognizerResultHandler on the stream of results a recognizer emits: most
+// chunks repeat the previous partial, some extend it, every few seconds a final arrives.
+// Console output is off so only decoding and bookkeeping are measured.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultHandlingBenchmark {
+
+    private static final String[] WORDS = {"the", "quick", "brown", "fox", "jumps", "over", "the", "lazy", "dog"};
+
+    // Partials as they grow during one utterance, each repeated like consecutive chunks do
+    private String[] partials;
+
+    private String finalResult;
+
+    private TranscriptionRecognizerResultHandler resultHandler;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        partials = new String[WORDS.length * 4];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < WORDS.length; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[i]);
+            for (int repeat = 0; repeat < 4; repeat++) {
+                partials[i * 4 + repeat] = "{\n  \"partial\" : \"" + text + "\"\n}";
+            }
+        }
+        finalResult = "{\n  \"text\" : \"" + text + "\"\n}";
+    }
+
+    // The handler keeps every final it has seen, a fresh one per iteration keeps that bounded
+    @Setup(Level.Iteration)
+    public void newHandler() {
+        resultHandler = new TranscriptionRecognizerResultHandler();
+        resultHandler.setConsoleOutput(false);
+    }
+
+    @Benchmark
+    public void unchangedPartial() {
+        resultHandler.handlePartialResult(partials[0]);
+    }
+
+    // One utterance per call cycle: every partial, then its final
+    @Benchmark
+    public void utteranceStream() {
+        if (next < partials.length) {
+            resultHandler.handlePartialResult(partials[next++]);
+        } else {
+            resultHandler.handleFinalResult(finalResult);
+            next = 0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.oxidesales.voskTranscriber;
+
+// Picks the chunk size for the next read from how long acceptWaveForm has been taking.
+// A result for the last sample of a chunk arrives roughly chunk duration + decode time after
+// it was spoken, so for a target latency L and real-time factor r the chunk should last
+// L / (1 + r). When decoding gets close to real time the target is dropped and chunks grow,
+// because bigger chunks spread the fixed cost of each call over more audio.
+public class AdaptiveChunkSizer {
+
+    // 20 ms of audio, chunk sizes are kept to whole multiples of it
+    public static final int STEP_BYTES = Transcriber.BYTES_PER_SECOND / 50;
+
+    public static final int MIN_CHUNK_BYTES = STEP_BYTES;
+
+    public static final int MAX_CHUNK_BYTES = Transcriber.BYTES_PER_SECOND;
+
+    // Weight of the newest measurement in the smoothed real-time factor
+    private static final double SMOOTHING = 0.1;
+
+    private final double targetLatencyMillis;
+
+    // Above this the sizer stops chasing latency and grows chunks to keep up
+    private final double maxRealTimeFactor;
+
+    private double smoothedRealTimeFactor = -1;
+
+    private int chunkBytes;
+
+    public AdaptiveChunkSizer(double targetLatencyMillis, int initialChunkBytes) {
+        this(targetLatencyMillis, initialChunkBytes, 0.8);
+    }
+
+    public AdaptiveChunkSizer(double targetLatencyMillis, int initialChunkBytes, double maxRealTimeFactor) {
+        if (targetLatencyMillis <= 0) {
+            throw new IllegalArgumentException("Target latency must be positive");
+        }
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.maxRealTimeFactor = maxRealTimeFactor;
+        this.chunkBytes = clamp(initialChunkBytes);
+    }
+
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    // Called after every acceptWaveForm with the bytes it was given and how long it took
+    public void record(int bytes, long acceptNanos) {
+        if (bytes <= 0) {
+            return;
+        }
+        double chunkMillis = bytes * 1000.0 / Transcriber.BYTES_PER_SECOND;
+        double realTimeFactor = acceptNanos / 1e6 / chunkMillis;
+        smoothedRealTimeFactor = smoothedRealTimeFactor < 0
+                ? realTimeFactor
+                : smoothedRealTimeFactor + SMOOTHING * (realTimeFactor - smoothedRealTimeFactor);
+
+        int targetBytes;
+        if (smoothedRealTimeFactor > maxRealTimeFactor) {
+            targetBytes = chunkBytes + chunkBytes / 4 + STEP_BYTES;
+        } else {
+            double chunkMillisForTarget = targetLatencyMillis / (1 + smoothedRealTimeFactor);
+            targetBytes = (int) (chunkMillisForTarget * Transcriber.BYTES_PER_SECOND / 1000);
+        }
+
+        // Move halfway each time so a single slow call does not swing the size
+        chunkBytes = clamp(chunkBytes + (targetBytes - chunkBytes) / 2);
+    }
+
+    public double getSmoothedRealTimeFactor() {
+        return Math.max(0, smoothedRealTimeFactor);
+    }
+
+    public double getTargetLatencyMillis() {
+        return targetLatencyMillis;
+    }
+
+    private static int clamp(int bytes) {
+        int rounded = Math.round(bytes / (float) STEP_BYTES) * STEP_BYTES;
+        return Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, rounded));
+    }
+}
@@ -1,8 +1,5 @@
 package com.oxidesales.voskTranscriber;
 
-import org.codehaus.jackson.JsonNode;
-import org.codehaus.jackson.map.ObjectMapper;
-import org.vosk.Model;
 import org.vosk.Recognizer;
 
 import javax.sound.sampled.AudioFormat;
@@ -11,64 +8,230 @@ import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.function.DoubleUnaryOperator;
 
 public class AudioFileTranscriber {
-    private final Model voskModel;
+    private final RecognizerPool recognizerPool;
 
-    public AudioFileTranscriber (Model voskModel) {
-        this.voskModel = voskModel;
+    // Voice activity gating per file, null feeds all audio
+    private volatile VadConfig vadConfig;
+
+    // Bytes per acceptWaveForm call, files have no latency to protect so bigger is cheaper
+    private volatile int chunkBytes = Transcriber.CHUNK_SIZE;
+
+    // Transcripts of files decoded before with the same model and settings, null decodes every file
+    private volatile TranscriptCache transcriptCache;
+    private volatile String modelIdentity;
+
+    public AudioFileTranscriber (RecognizerPool recognizerPool) {
+        this.recognizerPool = recognizerPool;
+    }
+
+    public void setVadConfig(VadConfig vadConfig) {
+        this.vadConfig = vadConfig;
+    }
+
+    public void setChunkBytes(int chunkBytes) {
+        if (chunkBytes < 2 || chunkBytes % 2 != 0) {
+            throw new IllegalArgumentException("Chunk size must be a positive whole number of samples: " + chunkBytes);
+        }
+        this.chunkBytes = chunkBytes;
+    }
+
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    public void setTranscriptCache(TranscriptCache transcriptCache, ModelMetadata modelMetadata) {
+        this.modelIdentity = TranscriptCache.modelIdentity(modelMetadata);
+        this.transcriptCache = transcriptCache;
+    }
+
+    public TranscriptCache getTranscriptCache() {
+        return transcriptCache;
     }
 
     public String transcribeFile(String audioFilePath) throws IOException {
-        try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(audioFilePath))) {
+        return transcribeFileWithStats(audioFilePath).getText();
+    }
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            // Convert to required format if needed
-            AudioFormat targetFormat = new AudioFormat(
-                    AudioFormat.Encoding.PCM_SIGNED,
-                    Transcriber.SAMPLE_RATE,
-                    Transcriber.SAMPLE_SIZE_BITS,
-                    Transcriber.CHANNELS,
-                    (Transcriber.SAMPLE_SIZE_BITS / 8) * Transcriber.CHANNELS,
-                    Transcriber.SAMPLE_RATE,
-                    Transcriber.BIG_ENDIAN
-            );
+    public FileTranscription transcribeFileWithStats(String audioFilePath) throws IOException {
+        TranscriptCache cache = transcriptCache;
+        String cacheKey = null;
+        if (cache != null) {
+            // Looked up before borrowing, a hit never touches the recognizer pool
+            cacheKey = cache.key(Paths.get(audioFilePath), cacheSettings());
+            FileTranscription cached = cache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
 
-            AudioInputStream convertedStream = AudioSystem.getAudioInputStream(targetFormat, audioStream);
+        FileTranscription transcription;
+        // Borrow a recognizer for file processing, it is reset and pooled again afterwards
+        try (PooledRecognizer fileRecognizer = recognizerPool.borrow(RecognizerKey.dictation())) {
+            transcription = transcribe(audioFilePath, fileRecognizer.getRecognizer());
+        }
+
+        if (cache != null) {
+            cache.put(cacheKey, transcription);
+        }
+        return transcription;
+    }
+
+    // Everything besides the audio that can change the transcript
+    private String cacheSettings() {
+        VadConfig gateConfig = vadConfig;
+        return modelIdentity + "|rate=" + Transcriber.SAMPLE_RATE + "|chunk=" + chunkBytes
+                + "|vad=" + (gateConfig != null ? gateConfig : "off");
+    }
+
+    // Transcribe with a caller-owned recognizer, e.g. one per batch worker thread
+    public FileTranscription transcribe(String audioFilePath, Recognizer fileRecognizer) throws IOException {
+        return transcribe(audioFilePath, fileRecognizer, null);
+    }
+
+    // A fresh recognizer, word times have to start at the beginning of the file
+    public FileTranscription transcribeWithWords(String audioFilePath, WordCollector wordCollector) throws IOException {
+        try (PooledRecognizer fileRecognizer = recognizerPool.borrowFresh(RecognizerKey.dictation())) {
+            return transcribe(audioFilePath, fileRecognizer.getRecognizer(), wordCollector);
+        }
+    }
+
+    // With a collector every word's timing and confidence is collected too, in file seconds.
+    // The recognizer must not have decoded anything before, see RecognizerPool.borrowFresh.
+    public FileTranscription transcribe(String audioFilePath, Recognizer fileRecognizer,
+                                        WordCollector wordCollector) throws IOException {
+        if (wordCollector != null) {
+            fileRecognizer.setWords(true);
+        }
+        try (InputStream convertedStream = openPcmStream(audioFilePath)) {
 
-            // Create new recognizer for file processing
-            Recognizer fileRecognizer = new Recognizer(voskModel, Transcriber.SAMPLE_RATE);
             StringBuilder transcription = new StringBuilder();
+            VoskResultDecoder resultDecoder = new VoskResultDecoder();
+            VadConfig gateConfig = vadConfig;
+            VoiceActivityGate gate = gateConfig != null ? new VoiceActivityGate(gateConfig) : null;
+            // Gated audio has the silences cut out, word times are mapped back onto the file
+            DoubleUnaryOperator toFileSeconds = gate != null ? gate::toSourceSeconds : DoubleUnaryOperator.identity();
 
-            byte[] buffer = new byte[Transcriber.CHUNK_SIZE];
+            byte[] buffer = new byte[chunkBytes];
             int bytesRead;
+            long audioBytes = 0;
 
             while ((bytesRead = convertedStream.read(buffer)) != -1) {
-                if (fileRecognizer.acceptWaveForm(buffer, bytesRead)) {
-                    String result = fileRecognizer.getResult();
-                    JsonNode resultNode = objectMapper.readTree(result);
-                    String text = resultNode.get("text").asText().trim();
-
-                    if (!text.isEmpty()) {
-                        transcription.append(text).append(" ");
+                audioBytes += bytesRead;
+                if (gate == null) {
+                    acceptAudio(fileRecognizer, buffer, bytesRead, resultDecoder, transcription,
+                            wordCollector, toFileSeconds);
+                } else {
+                    int voiced = gate.process(buffer, bytesRead);
+                    if (voiced > 0) {
+                        acceptAudio(fileRecognizer, gate.output(), voiced, resultDecoder, transcription,
+                                wordCollector, toFileSeconds);
                     }
                 }
             }
 
-            // Get final result
-            String finalResult = fileRecognizer.getFinalResult();
-            JsonNode finalNode = objectMapper.readTree(finalResult);
-            String finalText = finalNode.get("text").asText().trim();
+            if (gate != null) {
+                int voiced = gate.flush();
+                if (voiced > 0) {
+                    acceptAudio(fileRecognizer, gate.output(), voiced, resultDecoder, transcription,
+                            wordCollector, toFileSeconds);
+                }
+            }
+
+            // Get final result, this also resets the recognizer for the next file
+            resultDecoder.decode(fileRecognizer.getFinalResult());
+            if (wordCollector != null) {
+                wordCollector.collect(resultDecoder, toFileSeconds);
+                wordCollector.flush();
+            }
+
+            if (!resultDecoder.isTextEmpty()) {
+                transcription.append(resultDecoder.text());
+            }
 
-            if (!finalText.isEmpty()) {
-                transcription.append(finalText);
+            long skippedBytes = gate != null ? gate.getSkippedBytes() : 0;
+            return new FileTranscription(transcription.toString().trim(), audioBytes, skippedBytes);
+        } finally {
+            if (wordCollector != null) {
+                // Pooled recognizers go back without word output
+                fileRecognizer.setWords(false);
             }
+        }
+    }
+
+    // Opens the file as 16 kHz mono 16-bit little-endian PCM. WAV and raw PCM files are
+    // read through a memory map, everything else goes through javax.sound conversion.
+    static InputStream openPcmStream(String audioFilePath) throws IOException {
+        Path path = Paths.get(audioFilePath);
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+
+        if (name.endsWith(".pcm") || name.endsWith(".raw")) {
+            // Headerless audio is taken to be in the transcriber format already
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            return new MappedPcmInputStream(channel, 0, channel.size());
+        }
+
+        if (name.endsWith(".wav") || name.endsWith(".wave")) {
+            WavFile wavFile = WavFile.open(path);
+            if (wavFile.isSupportedEncoding()) {
+                return wavFile.openPcmStream();
+            }
+        }
+
+        return openConvertedStream(audioFilePath);
+    }
+
+    private static InputStream openConvertedStream(String audioFilePath) throws IOException {
+        try {
+            AudioInputStream audioStream = AudioSystem.getAudioInputStream(new File(audioFilePath));
 
-            fileRecognizer.close();
-            return transcription.toString().trim();
+            // Convert to required format if needed
+            AudioFormat targetFormat = new AudioFormat(
+                    AudioFormat.Encoding.PCM_SIGNED,
+                    Transcriber.SAMPLE_RATE,
+                    Transcriber.SAMPLE_SIZE_BITS,
+                    Transcriber.CHANNELS,
+                    (Transcriber.SAMPLE_SIZE_BITS / 8) * Transcriber.CHANNELS,
+                    Transcriber.SAMPLE_RATE,
+                    Transcriber.BIG_ENDIAN
+            );
+
+            try {
+                return AudioSystem.getAudioInputStream(targetFormat, audioStream);
+            } catch (IllegalArgumentException e) {
+                audioStream.close();
+                throw new IOException("Cannot convert " + audioFilePath + " to 16 kHz mono PCM", e);
+            }
 
         } catch (UnsupportedAudioFileException e) {
             throw new IOException("Unsupported audio file format", e);
         }
     }
+
+    private void acceptAudio(Recognizer fileRecognizer, byte[] audioData, int length,
+                             VoskResultDecoder resultDecoder, StringBuilder transcription,
+                             WordCollector wordCollector, DoubleUnaryOperator toFileSeconds) throws IOException {
+        long acceptStart = System.nanoTime();
+        boolean isFinal = fileRecognizer.acceptWaveForm(audioData, length);
+        TranscriberMetrics.global().recordChunk(length, System.nanoTime() - acceptStart);
+
+        if (isFinal) {
+            resultDecoder.decode(fileRecognizer.getResult());
+            if (wordCollector != null) {
+                wordCollector.collect(resultDecoder, toFileSeconds);
+            }
+
+            if (!resultDecoder.isTextEmpty()) {
+                transcription.append(resultDecoder.text()).append(" ");
+            }
+        }
+    }
 }
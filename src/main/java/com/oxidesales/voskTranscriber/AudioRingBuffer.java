@@ -0,0 +1,242 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Single-producer/single-consumer byte ring for PCM audio, preallocated once.
+// Positions only ever grow, the slot in the array is position & mask.
+public class AudioRingBuffer {
+
+    private static final long PARK_NANOS = 1_000_000;
+
+    private final byte[] buffer;
+
+    private final int mask;
+
+    private final int frameSize;
+
+    private final OverflowPolicy overflowPolicy;
+
+    // Written by the producer only
+    private volatile long writePosition;
+
+    // Advanced by the consumer, and by the producer when dropping oldest data
+    private final AtomicLong readPosition = new AtomicLong();
+
+    private volatile long droppedBytes;
+
+    private volatile long writtenBytes;
+
+    private volatile int highWaterMark;
+
+    private volatile boolean closed;
+
+    private volatile Thread waitingConsumer;
+
+    private volatile Thread waitingProducer;
+
+    public AudioRingBuffer(int minCapacityBytes, int frameSize, OverflowPolicy overflowPolicy) {
+        if (minCapacityBytes < frameSize || frameSize < 1) {
+            throw new IllegalArgumentException("Ring buffer must hold at least one frame");
+        }
+        int capacity = 1;
+        while (capacity < minCapacityBytes) {
+            capacity <<= 1;
+        }
+        if (capacity % frameSize != 0) {
+            throw new IllegalArgumentException("Frame size must divide the ring capacity " + capacity);
+        }
+        this.buffer = new byte[capacity];
+        this.mask = capacity - 1;
+        this.frameSize = frameSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public static AudioRingBuffer forSeconds(double seconds, OverflowPolicy overflowPolicy) {
+        int bytes = (int) Math.ceil(seconds * Transcriber.BYTES_PER_SECOND);
+        return new AudioRingBuffer(bytes, (Transcriber.SAMPLE_SIZE_BITS / 8) * Transcriber.CHANNELS, overflowPolicy);
+    }
+
+    // Producer side, returns how many bytes were stored
+    public int write(byte[] data, int offset, int length) {
+        if (closed) {
+            return 0;
+        }
+        length -= length % frameSize;
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                return writeBlocking(data, offset, length);
+            case DROP_NEWEST:
+                return writeDroppingNewest(data, offset, length);
+            default:
+                return writeDroppingOldest(data, offset, length);
+        }
+    }
+
+    private int writeBlocking(byte[] data, int offset, int length) {
+        int written = 0;
+        while (written < length && !closed) {
+            int free = buffer.length - fillLevel();
+            if (free == 0) {
+                waitingProducer = Thread.currentThread();
+                if (buffer.length - fillLevel() == 0 && !closed) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                waitingProducer = null;
+                continue;
+            }
+            int count = Math.min(free, length - written);
+            copyIn(data, offset + written, count);
+            written += count;
+        }
+        return written;
+    }
+
+    private int writeDroppingNewest(byte[] data, int offset, int length) {
+        int free = buffer.length - fillLevel();
+        int count = Math.min(free, length);
+        if (count < length) {
+            droppedBytes += length - count;
+        }
+        if (count > 0) {
+            copyIn(data, offset, count);
+        }
+        return count;
+    }
+
+    private int writeDroppingOldest(byte[] data, int offset, int length) {
+        if (length > buffer.length) {
+            // Only the tail of an oversized write can survive
+            droppedBytes += length - buffer.length;
+            offset += length - buffer.length;
+            length = buffer.length;
+        }
+
+        while (true) {
+            long read = readPosition.get();
+            int free = buffer.length - (int) (writePosition - read);
+            int needed = length - free;
+            if (needed <= 0) {
+                break;
+            }
+            // Keep sample alignment when discarding
+            needed += (frameSize - needed % frameSize) % frameSize;
+            if (readPosition.compareAndSet(read, read + needed)) {
+                droppedBytes += needed;
+                break;
+            }
+        }
+
+        copyIn(data, offset, length);
+        return length;
+    }
+
+    private void copyIn(byte[] data, int offset, int count) {
+        long write = writePosition;
+        int index = (int) (write & mask);
+        int first = Math.min(count, buffer.length - index);
+        System.arraycopy(data, offset, buffer, index, first);
+        if (first < count) {
+            System.arraycopy(data, offset + first, buffer, 0, count - first);
+        }
+        // Publishing the new position makes the bytes visible to the consumer
+        writePosition = write + count;
+        writtenBytes += count;
+
+        int fill = fillLevel();
+        if (fill > highWaterMark) {
+            highWaterMark = fill;
+        }
+
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    // Consumer side, waits until length bytes are buffered. Once closed the rest is
+    // drained in smaller reads, -1 means closed and empty.
+    public int read(byte[] dest, int length) {
+        length = Math.min(length, buffer.length);
+        length -= length % frameSize;
+        while (true) {
+            long read = readPosition.get();
+            int available = (int) (writePosition - read);
+
+            if (available >= length || (closed && available > 0)) {
+                int count = Math.min(Math.min(available, length), buffer.length);
+                int index = (int) (read & mask);
+                int first = Math.min(count, buffer.length - index);
+                System.arraycopy(buffer, index, dest, 0, first);
+                if (first < count) {
+                    System.arraycopy(buffer, 0, dest, first, count - first);
+                }
+                // Fails when the producer dropped the bytes we just copied, then retry
+                if (readPosition.compareAndSet(read, read + count)) {
+                    Thread producer = waitingProducer;
+                    if (producer != null) {
+                        LockSupport.unpark(producer);
+                    }
+                    return count;
+                }
+                continue;
+            }
+
+            if (closed) {
+                return -1;
+            }
+
+            waitingConsumer = Thread.currentThread();
+            if (writePosition - readPosition.get() < length && !closed) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            waitingConsumer = null;
+        }
+    }
+
+    // No more writes, the consumer drains what is left
+    public void close() {
+        closed = true;
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        Thread producer = waitingProducer;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getCapacity() {
+        return buffer.length;
+    }
+
+    public int fillLevel() {
+        return (int) (writePosition - readPosition.get());
+    }
+
+    public double getFillRatio() {
+        return fillLevel() / (double) buffer.length;
+    }
+
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    public long getWrittenBytes() {
+        return writtenBytes;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+}
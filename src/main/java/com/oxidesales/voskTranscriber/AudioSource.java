@@ -0,0 +1,14 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+
+// Where live audio comes from: a microphone line, raw PCM from a pipe or socket, or a
+// replayed file for load tests.
+// Reads block like a line does and return 16 kHz mono 16-bit PCM, -1 at the end.
+public interface AudioSource extends AutoCloseable {
+
+    int read(byte[] buffer, int offset, int length) throws IOException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,68 @@
+package com.oxidesales.voskTranscriber;
+
+import java.nio.file.Path;
+
+public class BatchFileResult {
+
+    private final Path file;
+
+    private final String text;
+
+    private final String error;
+
+    private final double audioSeconds;
+
+    private final double skippedSeconds;
+
+    private final long decodeMillis;
+
+    private BatchFileResult(Path file, String text, String error, double audioSeconds, double skippedSeconds,
+                            long decodeMillis) {
+        this.file = file;
+        this.text = text;
+        this.error = error;
+        this.audioSeconds = audioSeconds;
+        this.skippedSeconds = skippedSeconds;
+        this.decodeMillis = decodeMillis;
+    }
+
+    public static BatchFileResult success(Path file, FileTranscription transcription, long decodeMillis) {
+        double skippedSeconds = transcription.getSkippedBytes() / (double) Transcriber.BYTES_PER_SECOND;
+        return new BatchFileResult(file, transcription.getText(), null, transcription.getAudioSeconds(),
+                skippedSeconds, decodeMillis);
+    }
+
+    public static BatchFileResult failure(Path file, Exception error, long decodeMillis) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        return new BatchFileResult(file, null, message, 0, 0, decodeMillis);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public double getAudioSeconds() {
+        return audioSeconds;
+    }
+
+    // Audio the voice activity gate did not send to the recognizer
+    public double getSkippedSeconds() {
+        return skippedSeconds;
+    }
+
+    public long getDecodeMillis() {
+        return decodeMillis;
+    }
+}
@@ -0,0 +1,79 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.List;
+
+public class BatchSummary {
+
+    private final List<BatchFileResult> results;
+
+    private final long wallMillis;
+
+    private final int workers;
+
+    public BatchSummary(List<BatchFileResult> results, long wallMillis, int workers) {
+        this.results = results;
+        this.wallMillis = wallMillis;
+        this.workers = workers;
+    }
+
+    // Results in the order the files were submitted
+    public List<BatchFileResult> getResults() {
+        return results;
+    }
+
+    public int getFileCount() {
+        return results.size();
+    }
+
+    public int getFailedCount() {
+        int failed = 0;
+        for (BatchFileResult result : results) {
+            if (!result.isSuccess()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    public double getTotalAudioSeconds() {
+        double total = 0;
+        for (BatchFileResult result : results) {
+            total += result.getAudioSeconds();
+        }
+        return total;
+    }
+
+    public double getSkippedAudioSeconds() {
+        double total = 0;
+        for (BatchFileResult result : results) {
+            total += result.getSkippedSeconds();
+        }
+        return total;
+    }
+
+    public double getWallSeconds() {
+        return wallMillis / 1000.0;
+    }
+
+    // Seconds of audio transcribed per second of wall time across all workers
+    public double getSpeedFactor() {
+        return wallMillis > 0 ? getTotalAudioSeconds() / getWallSeconds() : 0;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void print() {
+        System.out.println("📊 Batch summary");
+        System.out.println("----------------------------------------");
+        System.out.println("Files: " + getFileCount() + " (" + getFailedCount() + " failed)");
+        System.out.println("Workers: " + workers);
+        System.out.printf("Audio: %.1f s, wall time: %.1f s, speed: %.2fx real time%n",
+                getTotalAudioSeconds(), getWallSeconds(), getSpeedFactor());
+        if (getSkippedAudioSeconds() > 0) {
+            System.out.printf("Silence skipped: %.1f s (%.0f%% of the audio)%n",
+                    getSkippedAudioSeconds(), 100 * getSkippedAudioSeconds() / getTotalAudioSeconds());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class BatchTranscriber {
+
+    public static final List<String> AUDIO_FILE_EXTENSIONS = Arrays.asList(".wav", ".wave", ".pcm", ".raw", ".aiff", ".aif", ".au");
+
+    private static final Job END_OF_WORK = new Job(-1, null);
+
+    private final RecognizerPool recognizerPool;
+
+    private final AudioFileTranscriber audioFileTranscriber;
+
+    private final int workers;
+
+    private final int queueCapacity;
+
+    private Consumer<BatchFileResult> resultListener;
+
+    public BatchTranscriber(RecognizerPool recognizerPool, int workers) {
+        this(recognizerPool, workers, workers * 4);
+    }
+
+    public BatchTranscriber(RecognizerPool recognizerPool, int workers, int queueCapacity) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        this.recognizerPool = recognizerPool;
+        this.audioFileTranscriber = new AudioFileTranscriber(recognizerPool);
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    // Called from the worker threads as soon as a file is done
+    public void setResultListener(Consumer<BatchFileResult> resultListener) {
+        this.resultListener = resultListener;
+    }
+
+    public void setVadConfig(VadConfig vadConfig) {
+        audioFileTranscriber.setVadConfig(vadConfig);
+    }
+
+    public void setChunkBytes(int chunkBytes) {
+        audioFileTranscriber.setChunkBytes(chunkBytes);
+    }
+
+    // Files already in the cache are not decoded again, an interrupted batch resumes cheaply
+    public void setTranscriptCache(TranscriptCache transcriptCache, ModelMetadata modelMetadata) {
+        audioFileTranscriber.setTranscriptCache(transcriptCache, modelMetadata);
+    }
+
+    public RecognizerPool getRecognizerPool() {
+        return recognizerPool;
+    }
+
+    public static int defaultWorkers() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    // Expands directories (recursively) into their audio files, keeps plain files as they are
+    public static List<Path> collectAudioFiles(List<Path> inputs) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> walk = Files.walk(input)) {
+                    walk.filter(Files::isRegularFile)
+                            .filter(BatchTranscriber::isAudioFile)
+                            .sorted(Comparator.naturalOrder())
+                            .forEach(files::add);
+                }
+            } else {
+                files.add(input);
+            }
+        }
+        return files;
+    }
+
+    private static boolean isAudioFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String extension : AUDIO_FILE_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public BatchSummary transcribe(List<Path> files) throws IOException {
+        long startedAt = System.nanoTime();
+        AtomicReferenceArray<BatchFileResult> results = new AtomicReferenceArray<>(files.size());
+        BlockingQueue<Job> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(workers);
+
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                running.add(executorService.submit(() -> runWorker(queue, results)));
+            }
+
+            // Feed the bounded queue, blocking while all workers are busy
+            for (int i = 0; i < files.size(); i++) {
+                queue.put(new Job(i, files.get(i)));
+            }
+            for (int i = 0; i < workers; i++) {
+                queue.put(END_OF_WORK);
+            }
+
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch transcription interrupted", e);
+        } catch (Exception e) {
+            executorService.shutdownNow();
+            throw new IOException("Batch transcription failed", e);
+        } finally {
+            executorService.shutdown();
+        }
+
+        List<BatchFileResult> ordered = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            ordered.add(results.get(i));
+        }
+        long wallMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        return new BatchSummary(ordered, wallMillis, workers);
+    }
+
+    private void runWorker(BlockingQueue<Job> queue, AtomicReferenceArray<BatchFileResult> results) {
+        try {
+            while (true) {
+                Job job = queue.take();
+                if (job == END_OF_WORK) {
+                    return;
+                }
+                BatchFileResult result = transcribeOne(job.file);
+                results.set(job.index, result);
+
+                if (resultListener != null) {
+                    try {
+                        resultListener.accept(result);
+                    } catch (RuntimeException e) {
+                        System.err.println("❌ Error in batch result listener: " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BatchFileResult transcribeOne(Path file) {
+        long startedAt = System.nanoTime();
+        try {
+            // The pool resets the recognizer when it comes back, also after a failed file
+            FileTranscription transcription = audioFileTranscriber.transcribeFileWithStats(file.toString());
+            return BatchFileResult.success(file, transcription, (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (Exception e) {
+            return BatchFileResult.failure(file, e, (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    private static class Job {
+        private final int index;
+        private final Path file;
+
+        private Job(int index, Path file) {
+            this.index = index;
+            this.file = file;
+        }
+    }
+}
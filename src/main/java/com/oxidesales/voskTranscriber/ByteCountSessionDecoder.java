@@ -0,0 +1,57 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+
+// Model-free stand-in for VoskSessionDecoder, so the server and client can run over loopback
+// without a model. Every fixed stretch of audio is one utterance: partials report the bytes
+// received in the current utterance so far, finals the bytes of the whole utterance.
+public class ByteCountSessionDecoder implements SessionDecoder {
+
+    public static final int DEFAULT_UTTERANCE_BYTES = Transcriber.BYTES_PER_SECOND;
+
+    private final int utteranceBytes;
+
+    private long currentBytes;
+
+    public ByteCountSessionDecoder(int utteranceBytes) {
+        if (utteranceBytes < 1) {
+            throw new IllegalArgumentException("Utterance must be at least one byte");
+        }
+        this.utteranceBytes = utteranceBytes;
+    }
+
+    public static SessionDecoderFactory factory(int utteranceBytes) {
+        return () -> new ByteCountSessionDecoder(utteranceBytes);
+    }
+
+    public static String describe(long bytes) {
+        return bytes + " bytes";
+    }
+
+    @Override
+    public void accept(byte[] audioData, int length, ResultSink sink) throws IOException {
+        int remaining = length;
+        while (currentBytes + remaining >= utteranceBytes) {
+            remaining -= (int) (utteranceBytes - currentBytes);
+            currentBytes = 0;
+            sink.onFinal(describe(utteranceBytes));
+        }
+        currentBytes += remaining;
+        if (currentBytes > 0 && sink.wantsPartials()) {
+            sink.onPartial(describe(currentBytes));
+        }
+    }
+
+    @Override
+    public void finish(ResultSink sink) throws IOException {
+        if (currentBytes > 0) {
+            sink.onFinal(describe(currentBytes));
+            currentBytes = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        // Nothing native to free
+    }
+}
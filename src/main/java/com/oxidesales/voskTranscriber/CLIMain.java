@@ -1,9 +1,41 @@
 package com.oxidesales.voskTranscriber;
 
+import javax.sound.sampled.LineUnavailableException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class CLIMain {
     public static void main(String[] args) {
         if (args.length < 1) {
             System.err.println("Usage: java CLITranscriber <model-path>");
+            System.err.println("       java CLITranscriber <model-path> --batch [--workers N] <file-or-dir>...");
+            System.err.println("       java CLITranscriber <model-path> --segmented [--workers N] [--compare --max-wer R] <file>");
+            System.err.println("       java CLITranscriber <model-path> --serve <port> [--max-sessions N]");
+            System.err.println("       java CLITranscriber <model-path> --file <audio-file>");
+            System.err.println("       java CLITranscriber <model-path> --commands \"lights on,lights off\" <audio-file>");
+            System.err.println("       java CLITranscriber <model-path> --channels [--speakers agent,customer] <wav-file>");
+            System.err.println("       java CLITranscriber <model-path> --stream -|<pipe>|tcp://host:port|tcp://:port");
+            System.err.println("       java CLITranscriber <model-path> --loadtest [--streams N | --ramp start:step:max] [--speed X] [--seconds S] <wav-file>...");
+            System.err.println("       java CLITranscriber --words-json <words-file>");
+            System.err.println("Options: --vad  skip silence before the recognizer");
+            System.err.println("         --metrics <seconds>  print latency and throughput metrics periodically");
+            System.err.println("         --model-budget-mb <MB>  memory for idle loaded models before they are evicted");
+            System.err.println("         --profile low-latency|balanced|throughput  chunk size and partial rate");
+            System.err.println("         --adaptive <ms>  tune the live chunk size for this result latency");
+            System.err.println("         --partial-interval <ms>  minimum time between partial results");
+            System.err.println("         --no-partials  final results only, partials are never computed");
+            System.err.println("         --transcript-log <dir>  keep the live transcript in a crash-safe log on disk");
+            System.err.println("         --cache <dir> [--cache-max-mb <MB>]  reuse transcripts of unchanged files");
+            System.err.println("         --words <file>  write word timings and confidences (live and --file)");
+            System.err.println("         --overload no-partials,large-chunks,fallback-model  degrade live streams that fall behind");
+            System.err.println("         --fallback-model <model-path>  smaller model for the fallback-model step");
             System.err.println("Example: java CLITranscriber ./vosk-model-en-us-0.22");
             System.err.println("");
             System.err.println("Download models from: https://alphacephei.com/vosk/models");
@@ -14,22 +46,454 @@ public class CLIMain {
             System.exit(1);
         }
 
+        if (args[0].equals("--words-json") && args.length > 1) {
+            // Needs no model, just prints a word file
+            dumpWords(Paths.get(args[1]));
+            return;
+        }
+
         String modelPath = args[0];
 
-        Transcriber transcriber = new Transcriber(modelPath);
+        // Options shared by all modes, the rest is mode specific
+        List<String> remaining = new ArrayList<>();
+        boolean vad = false;
+        long metricsInterval = 0;
+        ChunkProfile chunkProfile = null;
+        double adaptiveLatency = 0;
+        int partialInterval = -1;
+        boolean partials = true;
+        Path transcriptLog = null;
+        Path wordOutput = null;
+        Path cacheDirectory = null;
+        long cacheMaxBytes = TranscriptCache.DEFAULT_MAX_BYTES;
+        OverloadConfig overloadConfig = null;
+        String fallbackModel = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--vad")) {
+                vad = true;
+            } else if (args[i].equals("--metrics") && i + 1 < args.length) {
+                metricsInterval = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--profile") && i + 1 < args.length) {
+                chunkProfile = ChunkProfile.parse(args[++i]);
+            } else if (args[i].equals("--partial-interval") && i + 1 < args.length) {
+                partialInterval = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--transcript-log") && i + 1 < args.length) {
+                transcriptLog = Paths.get(args[++i]);
+            } else if (args[i].equals("--cache") && i + 1 < args.length) {
+                cacheDirectory = Paths.get(args[++i]);
+            } else if (args[i].equals("--cache-max-mb") && i + 1 < args.length) {
+                cacheMaxBytes = Long.parseLong(args[++i]) * 1024 * 1024;
+            } else if (args[i].equals("--words") && i + 1 < args.length) {
+                wordOutput = Paths.get(args[++i]);
+            } else if (args[i].equals("--overload") && i + 1 < args.length) {
+                overloadConfig = OverloadConfig.parseLadder(args[++i]);
+            } else if (args[i].equals("--fallback-model") && i + 1 < args.length) {
+                fallbackModel = args[++i];
+            } else if (args[i].equals("--no-partials")) {
+                partials = false;
+            } else if (args[i].equals("--adaptive") && i + 1 < args.length) {
+                adaptiveLatency = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("--model-budget-mb") && i + 1 < args.length) {
+                ModelRegistry.global().setMemoryBudgetBytes(Long.parseLong(args[++i]) * 1024 * 1024);
+            } else {
+                remaining.add(args[i]);
+            }
+        }
+
+        // Live mode listens right away, the model loads meanwhile and then catches up
+        MicrophoneCapture earlyCapture = null;
+        Transcriber transcriber;
+        if (remaining.isEmpty()) {
+            CompletableFuture<Transcriber> loading = Transcriber.loadInBackground(modelPath);
+            try {
+                earlyCapture = MicrophoneCapture.open(chunkProfile != null ? chunkProfile : ChunkProfile.BALANCED,
+                        Transcriber.STARTUP_BUFFER_SECONDS, OverflowPolicy.DROP_OLDEST);
+                System.out.println("🎤 Listening while the model loads...");
+            } catch (LineUnavailableException e) {
+                System.err.println("❌ Microphone unavailable: " + e.getMessage());
+                System.exit(1);
+            }
+            try {
+                transcriber = loading.join();
+            } catch (CompletionException e) {
+                System.err.println("❌ Application error: " + e.getCause().getMessage());
+                System.exit(1);
+                return;
+            }
+        } else {
+            transcriber = new Transcriber(modelPath);
+        }
+        if (vad) {
+            transcriber.setVadConfig(VadConfig.defaults());
+        }
+        if (chunkProfile != null) {
+            transcriber.setChunkProfile(chunkProfile);
+        }
+        transcriber.setAdaptiveChunking(adaptiveLatency);
+        transcriber.setPartialIntervalMillis(partialInterval);
+        transcriber.setConsolePartials(partials);
+        if (transcriptLog != null) {
+            try {
+                transcriber.setTranscriptLog(transcriptLog);
+            } catch (IOException e) {
+                System.err.println("❌ Cannot open transcript log " + transcriptLog + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (cacheDirectory != null) {
+            try {
+                transcriber.setTranscriptCache(cacheDirectory, cacheMaxBytes);
+            } catch (IOException e) {
+                System.err.println("❌ Cannot open transcript cache " + cacheDirectory + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (overloadConfig != null) {
+            try {
+                transcriber.setOverloadControl(overloadConfig, fallbackModel);
+            } catch (IOException e) {
+                System.err.println("❌ Cannot load fallback model " + fallbackModel + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (wordOutput != null) {
+            try {
+                transcriber.setWordOutput(wordOutput);
+            } catch (IOException e) {
+                System.err.println("❌ Cannot open word output " + wordOutput + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (metricsInterval > 0) {
+            new MetricsReporter(TranscriberMetrics.global()).start(metricsInterval);
+        }
+
+        if (!remaining.isEmpty() && remaining.get(0).equals("--batch")) {
+            runBatch(transcriber, remaining);
+            return;
+        }
+
+        if (!remaining.isEmpty() && remaining.get(0).equals("--serve")) {
+            runServer(transcriber, remaining);
+            return;
+        }
+
+        if (!remaining.isEmpty() && remaining.get(0).equals("--file")) {
+            runFile(transcriber, remaining);
+            return;
+        }
+
+        if (!remaining.isEmpty() && remaining.get(0).equals("--commands")) {
+            runCommands(transcriber, remaining);
+            return;
+        }
 
-        // Test audio system first
-        transcriber.testAudioSystem();
+        if (!remaining.isEmpty() && remaining.get(0).equals("--channels")) {
+            runChannels(transcriber, remaining);
+            return;
+        }
+
+        if (!remaining.isEmpty() && remaining.get(0).equals("--segmented")) {
+            runSegmented(transcriber, remaining);
+            return;
+        }
+
+        if (!remaining.isEmpty() && remaining.get(0).equals("--stream")) {
+            runStream(transcriber, remaining);
+            return;
+        }
+
+        if (!remaining.isEmpty() && remaining.get(0).equals("--loadtest")) {
+            runLoadTest(transcriber, remaining);
+            return;
+        }
 
         // Handle shutdown gracefully
         Runtime.getRuntime().addShutdownHook(new Thread(transcriber::cleanupRealtime));
 
         try {
-            transcriber.startRealtime();
+            System.out.printf("📦 Model ready after %.1f s, %.1f s of audio buffered%n",
+                    earlyCapture.getOpenSeconds(), earlyCapture.getBufferedSeconds());
+            transcriber.startRealtime(earlyCapture);
         } catch (Exception e) {
             System.err.println("❌ Application error: " + e.getMessage());
             e.printStackTrace();
             System.exit(1);
         }
     }
+
+    private static void runBatch(Transcriber transcriber, List<String> args) {
+        int workers = BatchTranscriber.defaultWorkers();
+        List<Path> inputs = new ArrayList<>();
+
+        for (int i = 1; i < args.size(); i++) {
+            if (args.get(i).equals("--workers") && i + 1 < args.size()) {
+                workers = Integer.parseInt(args.get(++i));
+            } else {
+                inputs.add(Paths.get(args.get(i)));
+            }
+        }
+
+        if (inputs.isEmpty()) {
+            System.err.println("❌ No files or directories given for --batch");
+            System.exit(1);
+        }
+
+        try {
+            BatchSummary summary = transcriber.transcribeAudioFiles(inputs, workers);
+            summary.print();
+            System.out.println("Recognizer pool: " + transcriber.getRecognizerPool().getStats());
+            if (transcriber.getTranscriptCache() != null) {
+                System.out.println("🗄️  Transcript cache: " + transcriber.getTranscriptCache());
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Batch error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            transcriber.close();
+        }
+    }
+
+    private static void runFile(Transcriber transcriber, List<String> args) {
+        if (args.size() < 2) {
+            System.err.println("❌ No file given for --file");
+            System.exit(1);
+        }
+
+        try {
+            System.out.println(transcriber.transcribeAudioFile(args.get(1)));
+        } catch (Exception e) {
+            System.err.println("❌ File transcription error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            transcriber.close();
+        }
+    }
+
+    private static void runCommands(Transcriber transcriber, List<String> args) {
+        if (args.size() < 3) {
+            System.err.println("❌ --commands needs a comma-separated phrase list and an audio file");
+            System.exit(1);
+        }
+
+        CommandGrammar grammar = CommandGrammar.parse(args.get(1));
+        String file = args.get(2);
+        long startedAt = System.nanoTime();
+        int matches = 0;
+        try (CommandRecognizer commandRecognizer = transcriber.openCommandRecognizer(grammar);
+             InputStream pcm = AudioFileTranscriber.openPcmStream(file)) {
+            byte[] buffer = new byte[Transcriber.CHUNK_SIZE];
+            int bytesRead;
+            while ((bytesRead = pcm.read(buffer)) != -1) {
+                CommandMatch match = commandRecognizer.accept(buffer, bytesRead);
+                if (match != null) {
+                    System.out.println("🎯 " + match);
+                    matches++;
+                }
+            }
+            CommandMatch match = commandRecognizer.finish();
+            if (match != null) {
+                System.out.println("🎯 " + match);
+                matches++;
+            }
+            System.out.printf("📊 %d commands in %.1f s audio, %d ms%n", matches,
+                    commandRecognizer.getAcceptedSeconds(), (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (Exception e) {
+            System.err.println("❌ Command recognition error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            transcriber.close();
+        }
+    }
+
+    private static void runChannels(Transcriber transcriber, List<String> args) {
+        List<String> speakers = List.of();
+        String file = null;
+
+        for (int i = 1; i < args.size(); i++) {
+            if (args.get(i).equals("--speakers") && i + 1 < args.size()) {
+                speakers = List.of(args.get(++i).split(","));
+            } else {
+                file = args.get(i);
+            }
+        }
+
+        if (file == null) {
+            System.err.println("❌ No file given for --channels");
+            System.exit(1);
+        }
+
+        try {
+            ChannelTranscription transcription = transcriber.transcribeAudioFileChannels(file, speakers);
+            for (SpeakerUtterance utterance : transcription.getUtterances()) {
+                System.out.println(utterance);
+            }
+            System.out.printf("📊 %.1f s audio, %d channels decoded in parallel, %d ms%n",
+                    transcription.getAudioSeconds(), transcription.getChannelCount(), transcription.getDecodeMillis());
+        } catch (Exception e) {
+            System.err.println("❌ Channel transcription error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        } finally {
+            transcriber.close();
+        }
+    }
+
+    // One JSON object per batch, for looking inside a --words file
+    private static void dumpWords(Path file) {
+        try (InputStream in = Files.newInputStream(file);
+             WordBatchReader reader = new WordBatchReader(in)) {
+            WordBatch batch;
+            while ((batch = reader.next()) != null) {
+                batch.writeJson(System.out);
+                System.out.println();
+            }
+        } catch (IOException e) {
+            System.err.println("❌ Cannot read word file " + file + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void runSegmented(Transcriber transcriber, List<String> args) {
+        int workers = BatchTranscriber.defaultWorkers();
+        boolean compare = false;
+        double maxWordErrorRate = 0.02;
+        String file = null;
+
+        for (int i = 1; i < args.size(); i++) {
+            if (args.get(i).equals("--workers") && i + 1 < args.size()) {
+                workers = Integer.parseInt(args.get(++i));
+            } else if (args.get(i).equals("--compare")) {
+                compare = true;
+            } else if (args.get(i).equals("--max-wer") && i + 1 < args.size()) {
+                maxWordErrorRate = Double.parseDouble(args.get(++i));
+            } else {
+                file = args.get(i);
+            }
+        }
+
+        if (file == null) {
+            System.err.println("❌ No file given for --segmented");
+            System.exit(1);
+        }
+
+        int exitCode = 0;
+        try {
+            if (compare) {
+                SegmentationAccuracy accuracy = transcriber.compareSegmentedWithSerial(file, workers);
+                System.out.println("📏 " + accuracy);
+                if (!accuracy.isWithin(maxWordErrorRate)) {
+                    System.err.printf("❌ Segmented output differs by more than %.2f%% WER%n", maxWordErrorRate * 100);
+                    exitCode = 2;
+                }
+            } else {
+                SegmentedTranscription transcription = transcriber.transcribeAudioFileSegmented(file, workers);
+                for (TimedUtterance utterance : transcription.getUtterances()) {
+                    System.out.println(utterance);
+                }
+                System.out.printf("📊 %.1f s audio in %d segments, %d ms%n", transcription.getAudioSeconds(),
+                        transcription.getSegmentCount(), transcription.getDecodeMillis());
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Segmented transcription error: " + e.getMessage());
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            transcriber.close();
+        }
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    // Raw 16 kHz mono 16-bit PCM, e.g. ffmpeg -i call.mp3 -f s16le -ac 1 -ar 16000 - | ... --stream -
+    private static void runStream(Transcriber transcriber, List<String> args) {
+        String spec = args.size() > 1 ? args.get(1) : "-";
+        ChannelAudioSource source;
+        try {
+            source = ChannelAudioSource.open(spec);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Cannot open stream " + spec + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(transcriber::cleanupRealtime));
+        transcriber.transcribeStream(source);
+        System.out.printf("📥 %.1f s of audio read from %s%n",
+                source.getReadBytes() / (double) Transcriber.BYTES_PER_SECOND, source);
+    }
+
+    private static void runLoadTest(Transcriber transcriber, List<String> args) {
+        int start = 1;
+        int step = 1;
+        int max = Runtime.getRuntime().availableProcessors() * 2;
+        double speed = 1.0;
+        double seconds = 30.0;
+        List<String> files = new ArrayList<>();
+
+        for (int i = 1; i < args.size(); i++) {
+            if (args.get(i).equals("--streams") && i + 1 < args.size()) {
+                start = max = Integer.parseInt(args.get(++i));
+            } else if (args.get(i).equals("--ramp") && i + 1 < args.size()) {
+                String[] ramp = args.get(++i).split(":");
+                start = Integer.parseInt(ramp[0]);
+                step = Integer.parseInt(ramp[1]);
+                max = Integer.parseInt(ramp[2]);
+            } else if (args.get(i).equals("--speed") && i + 1 < args.size()) {
+                speed = Double.parseDouble(args.get(++i));
+            } else if (args.get(i).equals("--seconds") && i + 1 < args.size()) {
+                seconds = Double.parseDouble(args.get(++i));
+            } else {
+                files.add(args.get(i));
+            }
+        }
+
+        if (files.isEmpty()) {
+            System.err.println("❌ No audio files given for --loadtest");
+            System.exit(1);
+        }
+
+        System.out.printf("🏋️  Load test: %d to %d streams, %.0f s per step at %.1fx speed%n",
+                start, max, seconds, speed);
+        try {
+            transcriber.runLoadTest(files, start, step, max, speed, seconds);
+        } catch (Exception e) {
+            System.err.println("❌ Load test failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            transcriber.close();
+        }
+    }
+
+    private static void runServer(Transcriber transcriber, List<String> args) {
+        int port = 2700;
+        ServerLimits defaults = ServerLimits.defaults();
+        int maxSessions = defaults.getMaxSessions();
+
+        for (int i = 1; i < args.size(); i++) {
+            if (args.get(i).equals("--max-sessions") && i + 1 < args.size()) {
+                maxSessions = Integer.parseInt(args.get(++i));
+            } else {
+                port = Integer.parseInt(args.get(i));
+            }
+        }
+
+        ServerLimits limits = new ServerLimits(maxSessions, defaults.getMaxSessionAudioSeconds(),
+                defaults.getMaxSessionMillis(), defaults.getRecognizerWaitMillis());
+        try {
+            TranscriptionServer server = transcriber.startServer(port, limits);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                transcriber.close();
+            }));
+        } catch (Exception e) {
+            System.err.println("❌ Server error: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
 }
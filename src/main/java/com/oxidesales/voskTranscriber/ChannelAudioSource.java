@@ -0,0 +1,136 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Raw 16 kHz mono 16-bit little-endian PCM from stdin, a named pipe or a TCP socket, so the
+// transcriber can sit in a shell pipeline behind whatever decodes the audio. Reads go through
+// one direct buffer, the channel fills it without an intermediate heap copy and it is copied
+// once into the caller's array. Only whole samples are returned, an odd byte waits for its
+// partner.
+public class ChannelAudioSource implements AudioSource {
+
+    public static final int DEFAULT_BUFFER_BYTES = 64 * 1024;
+
+    private static final int FRAME_BYTES = (Transcriber.SAMPLE_SIZE_BITS / 8) * Transcriber.CHANNELS;
+
+    private final ReadableByteChannel channel;
+
+    private final String description;
+
+    private final ByteBuffer buffer;
+
+    private long readBytes;
+
+    private boolean endOfStream;
+
+    public ChannelAudioSource(ReadableByteChannel channel, String description) {
+        this(channel, description, DEFAULT_BUFFER_BYTES);
+    }
+
+    public ChannelAudioSource(ReadableByteChannel channel, String description, int bufferBytes) {
+        this.channel = channel;
+        this.description = description;
+        this.buffer = ByteBuffer.allocateDirect(Math.max(FRAME_BYTES, bufferBytes - bufferBytes % FRAME_BYTES));
+        this.buffer.flip();
+    }
+
+    public static ChannelAudioSource stdin() {
+        return new ChannelAudioSource(new FileInputStream(FileDescriptor.in).getChannel(), "stdin");
+    }
+
+    // A named pipe blocks here until a writer opens it; a regular file of raw PCM works too
+    public static ChannelAudioSource file(Path path) throws IOException {
+        return new ChannelAudioSource(FileChannel.open(path, StandardOpenOption.READ), path.toString());
+    }
+
+    public static ChannelAudioSource connect(String host, int port) throws IOException {
+        SocketChannel socket = SocketChannel.open(new InetSocketAddress(host, port));
+        return new ChannelAudioSource(socket, "tcp://" + host + ":" + port);
+    }
+
+    // Waits for one sender to connect and reads its stream
+    public static ChannelAudioSource listen(int port) throws IOException {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(port));
+            System.out.println("🔌 Waiting for raw PCM on port " + port + "...");
+            SocketChannel socket = server.accept();
+            return new ChannelAudioSource(socket, "tcp " + socket.getRemoteAddress());
+        }
+    }
+
+    // "-" is stdin, tcp://host:port connects, tcp://:port listens, anything else is a path
+    public static ChannelAudioSource open(String spec) throws IOException {
+        if (spec.equals("-")) {
+            return stdin();
+        }
+        if (spec.startsWith("tcp://")) {
+            String address = spec.substring("tcp://".length());
+            int colon = address.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IOException("TCP input needs a port: " + spec);
+            }
+            int port = Integer.parseInt(address.substring(colon + 1));
+            return colon == 0 ? listen(port) : connect(address.substring(0, colon), port);
+        }
+        return file(Paths.get(spec));
+    }
+
+    @Override
+    public int read(byte[] dest, int offset, int length) throws IOException {
+        length -= length % FRAME_BYTES;
+        if (length == 0) {
+            return 0;
+        }
+
+        // At least one whole sample, the channel decides how much more is ready
+        while (buffer.remaining() < FRAME_BYTES && !endOfStream) {
+            buffer.compact();
+            if (channel.read(buffer) < 0) {
+                endOfStream = true;
+            }
+            buffer.flip();
+        }
+        if (buffer.remaining() < FRAME_BYTES) {
+            // A trailing odd byte is not a sample
+            return -1;
+        }
+
+        int count = Math.min(length, buffer.remaining() - buffer.remaining() % FRAME_BYTES);
+        buffer.get(dest, offset, count);
+        readBytes += count;
+        return count;
+    }
+
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to read anyway
+        }
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,90 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Streams one channel of interleaved PCM, samples stay in the source encoding. Several of
+// these over the same memory-mapped data chunk read a multi-channel file without copying it.
+public class ChannelPcmInputStream extends InputStream {
+
+    private final InputStream source;
+
+    private final int frameBytes;
+
+    private final int sampleBytes;
+
+    // Byte offset of the channel's sample inside a frame
+    private final int channelOffset;
+
+    private final byte[] inputBuffer;
+    private int inputLength;
+
+    private final byte[] outputBuffer;
+    private int outputPosition;
+    private int outputLength;
+
+    private boolean endOfInput;
+
+    public ChannelPcmInputStream(InputStream source, int channels, int bitsPerSample, int channel) {
+        if (channel < 0 || channel >= channels) {
+            throw new IllegalArgumentException("No channel " + channel + " in " + channels + "-channel audio");
+        }
+        this.source = source;
+        this.sampleBytes = bitsPerSample / 8;
+        this.frameBytes = sampleBytes * channels;
+        this.channelOffset = channel * sampleBytes;
+        this.inputBuffer = new byte[frameBytes * 4096];
+        this.outputBuffer = new byte[sampleBytes * 4096];
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (outputPosition == outputLength) {
+            if (endOfInput) {
+                return -1;
+            }
+            extractNextBlock();
+        }
+        int count = Math.min(length, outputLength - outputPosition);
+        System.arraycopy(outputBuffer, outputPosition, buffer, offset, count);
+        outputPosition += count;
+        return count;
+    }
+
+    private void extractNextBlock() throws IOException {
+        int read = source.read(inputBuffer, inputLength, inputBuffer.length - inputLength);
+        if (read == -1) {
+            endOfInput = true;
+        } else {
+            inputLength += read;
+        }
+
+        outputPosition = 0;
+        outputLength = 0;
+
+        int frames = inputLength / frameBytes;
+        for (int frame = 0; frame < frames; frame++) {
+            System.arraycopy(inputBuffer, frame * frameBytes + channelOffset, outputBuffer, outputLength, sampleBytes);
+            outputLength += sampleBytes;
+        }
+
+        // Keep an incomplete trailing frame for the next block
+        int used = frames * frameBytes;
+        System.arraycopy(inputBuffer, used, inputBuffer, 0, inputLength - used);
+        inputLength -= used;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.Recognizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Decodes each channel of a multi-channel WAV file on its own recognizer, e.g. agent and
+// customer of a call recording, instead of mixing them down to mono. Every channel reads the
+// same memory-mapped data chunk, the page cache holds the file once and the decoders move
+// through it side by side. Results are merged by start time and labelled with the speaker.
+public class ChannelSplitTranscriber {
+
+    private final RecognizerPool recognizerPool;
+
+    public ChannelSplitTranscriber(RecognizerPool recognizerPool) {
+        this.recognizerPool = recognizerPool;
+    }
+
+    public ChannelTranscription transcribe(String audioFilePath) throws IOException {
+        return transcribe(audioFilePath, List.of());
+    }
+
+    // Labels name the channels in order, missing ones default to "channel N"
+    public ChannelTranscription transcribe(String audioFilePath, List<String> speakerLabels) throws IOException {
+        WavFile wavFile = WavFile.open(Paths.get(audioFilePath));
+        if (!wavFile.isSupportedEncoding()) {
+            throw new IOException("Channel split needs integer or float PCM WAV input: " + audioFilePath);
+        }
+
+        int channels = wavFile.getChannels();
+        List<String> speakers = new ArrayList<>(channels);
+        for (int channel = 0; channel < channels; channel++) {
+            speakers.add(channel < speakerLabels.size() ? speakerLabels.get(channel) : "channel " + (channel + 1));
+        }
+
+        long startedAt = System.nanoTime();
+        ExecutorService executorService = Executors.newFixedThreadPool(channels);
+        try {
+            List<Future<List<TimedUtterance>>> futures = new ArrayList<>(channels);
+            for (int channel = 0; channel < channels; channel++) {
+                int selected = channel;
+                futures.add(executorService.submit(() -> decodeChannel(wavFile, selected)));
+            }
+
+            List<SpeakerUtterance> utterances = new ArrayList<>();
+            for (int channel = 0; channel < channels; channel++) {
+                for (TimedUtterance utterance : futures.get(channel).get()) {
+                    utterances.add(new SpeakerUtterance(channel, speakers.get(channel), utterance));
+                }
+            }
+            // Stable, so equal start times keep channel order
+            utterances.sort(Comparator.comparingDouble(SpeakerUtterance::getStart));
+
+            long decodeMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            return new ChannelTranscription(utterances, speakers, wavFile.getDurationSeconds(), decodeMillis);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Channel split transcription interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Channel decoding failed", cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private List<TimedUtterance> decodeChannel(WavFile wavFile, int channel) throws IOException {
+        List<TimedUtterance> utterances = new ArrayList<>();
+        VoskResultDecoder resultDecoder = new VoskResultDecoder();
+
+        try (InputStream pcm = openChannelStream(wavFile, channel);
+             PooledRecognizer pooled = recognizerPool.borrowFresh(RecognizerKey.dictation())) {
+            Recognizer recognizer = pooled.getRecognizer();
+            // Word times place each utterance in the conversation
+            recognizer.setWords(true);
+            try {
+                byte[] buffer = new byte[Transcriber.CHUNK_SIZE];
+                int bytesRead;
+                while ((bytesRead = pcm.read(buffer)) != -1) {
+                    long acceptStart = System.nanoTime();
+                    boolean isFinal = recognizer.acceptWaveForm(buffer, bytesRead);
+                    TranscriberMetrics.global().recordChunk(bytesRead, System.nanoTime() - acceptStart);
+
+                    if (isFinal) {
+                        SegmentedFileTranscriber.addUtterance(utterances, resultDecoder, recognizer.getResult(), 0);
+                    }
+                }
+                SegmentedFileTranscriber.addUtterance(utterances, resultDecoder, recognizer.getFinalResult(), 0);
+            } finally {
+                recognizer.setWords(false);
+            }
+        }
+        return utterances;
+    }
+
+    // One channel as 16 kHz mono 16-bit PCM, converted only when the file is in another format
+    static InputStream openChannelStream(WavFile wavFile, int channel) throws IOException {
+        InputStream samples = new ChannelPcmInputStream(wavFile.openData(), wavFile.getChannels(),
+                wavFile.getBitsPerSample(), channel);
+        if (wavFile.getFormatTag() == WavFile.FORMAT_PCM
+                && wavFile.getSampleRate() == Transcriber.SAMPLE_RATE
+                && wavFile.getBitsPerSample() == Transcriber.SAMPLE_SIZE_BITS) {
+            return samples;
+        }
+        return new PcmConvertingInputStream(samples, wavFile.getFormatTag() == WavFile.FORMAT_IEEE_FLOAT,
+                wavFile.getBitsPerSample(), 1, wavFile.getSampleRate());
+    }
+}
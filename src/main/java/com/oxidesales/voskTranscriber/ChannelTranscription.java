@@ -0,0 +1,54 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.List;
+
+public class ChannelTranscription {
+
+    private final List<SpeakerUtterance> utterances;
+
+    private final List<String> speakers;
+
+    private final double audioSeconds;
+
+    private final long decodeMillis;
+
+    public ChannelTranscription(List<SpeakerUtterance> utterances, List<String> speakers, double audioSeconds,
+                                long decodeMillis) {
+        this.utterances = utterances;
+        this.speakers = speakers;
+        this.audioSeconds = audioSeconds;
+        this.decodeMillis = decodeMillis;
+    }
+
+    // Utterances of all channels ordered by start time, overlapping speech stays separate
+    public List<SpeakerUtterance> getUtterances() {
+        return utterances;
+    }
+
+    public List<String> getSpeakers() {
+        return speakers;
+    }
+
+    public String getChannelText(int channel) {
+        StringBuilder text = new StringBuilder();
+        for (SpeakerUtterance utterance : utterances) {
+            if (utterance.getChannel() == channel) {
+                text.append(utterance.getText()).append(" ");
+            }
+        }
+        return text.toString().trim();
+    }
+
+    public int getChannelCount() {
+        return speakers.size();
+    }
+
+    // Length of the recording, each channel is this long
+    public double getAudioSeconds() {
+        return audioSeconds;
+    }
+
+    public long getDecodeMillis() {
+        return decodeMillis;
+    }
+}
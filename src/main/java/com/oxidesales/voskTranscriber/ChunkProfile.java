@@ -0,0 +1,51 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.Locale;
+
+// How audio is cut up on its way to the recognizer. Smaller chunks give earlier partials
+// at a higher cost per second of audio; bigger ones amortise the per-call overhead.
+public enum ChunkProfile {
+
+    // 40 ms chunks with a partial after each one, for live captions
+    LOW_LATENCY(1280, 2560, 0),
+
+    // 128 ms chunks, the defaults the transcriber has always used
+    BALANCED(Transcriber.CHUNK_SIZE, Transcriber.BUFFER_SIZE, 0),
+
+    // 1 s chunks and at most one partial per second, for files and bulk work
+    THROUGHPUT(32000, 16384, 1000);
+
+    private final int chunkBytes;
+
+    private final int lineBufferBytes;
+
+    // Minimum time between partial results, 0 asks for one after every chunk
+    private final int partialIntervalMillis;
+
+    ChunkProfile(int chunkBytes, int lineBufferBytes, int partialIntervalMillis) {
+        this.chunkBytes = chunkBytes;
+        this.lineBufferBytes = lineBufferBytes;
+        this.partialIntervalMillis = partialIntervalMillis;
+    }
+
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    public int getLineBufferBytes() {
+        return lineBufferBytes;
+    }
+
+    public int getPartialIntervalMillis() {
+        return partialIntervalMillis;
+    }
+
+    public double getChunkMillis() {
+        return chunkBytes * 1000.0 / Transcriber.BYTES_PER_SECOND;
+    }
+
+    // Accepts "low-latency", "LOW_LATENCY", "throughput", ...
+    public static ChunkProfile parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,118 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TreeSet;
+
+// A fixed set of command phrases for a grammar-restricted recognizer. Phrases are normalized
+// (lower case, single spaces) and sorted, so the same set always gives the same grammar JSON
+// and shares pooled recognizers. Every word has to be in the model's vocabulary, Vosk drops
+// the ones that are not.
+public class CommandGrammar {
+
+    // Lets the recognizer answer "none of these" instead of forcing noise onto a command
+    public static final String UNKNOWN = "[unk]";
+
+    private final List<String> phrases;
+
+    private final boolean allowUnknown;
+
+    private final String json;
+
+    public CommandGrammar(Collection<String> phrases, boolean allowUnknown) {
+        TreeSet<String> normalized = new TreeSet<>();
+        for (String phrase : phrases) {
+            String clean = normalize(phrase);
+            if (!clean.isEmpty() && !clean.equals(UNKNOWN)) {
+                normalized.add(clean);
+            }
+        }
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("A command grammar needs at least one phrase");
+        }
+        this.phrases = List.copyOf(normalized);
+        this.allowUnknown = allowUnknown;
+        this.json = buildJson();
+    }
+
+    public static CommandGrammar of(String... phrases) {
+        return new CommandGrammar(List.of(phrases), true);
+    }
+
+    // "lights on, lights off, stop"
+    public static CommandGrammar parse(String commaSeparated) {
+        List<String> phrases = new ArrayList<>();
+        for (String phrase : commaSeparated.split(",")) {
+            phrases.add(phrase);
+        }
+        return new CommandGrammar(phrases, true);
+    }
+
+    private static String normalize(String phrase) {
+        return phrase.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private String buildJson() {
+        StringBuilder grammar = new StringBuilder("[");
+        for (String phrase : phrases) {
+            if (grammar.length() > 1) {
+                grammar.append(", ");
+            }
+            grammar.append(JsonStrings.quote(phrase));
+        }
+        if (allowUnknown) {
+            grammar.append(", ").append(JsonStrings.quote(UNKNOWN));
+        }
+        return grammar.append(']').toString();
+    }
+
+    // The phrase the decoded text is, or null. Compares in place without building a String,
+    // command sets are small enough that a scan beats hashing the text.
+    public String match(VoskResultDecoder resultDecoder) {
+        if (resultDecoder.isTextEmpty()) {
+            return null;
+        }
+        for (String phrase : phrases) {
+            if (resultDecoder.textEquals(phrase)) {
+                return phrase;
+            }
+        }
+        return null;
+    }
+
+    public RecognizerKey toRecognizerKey() {
+        return new RecognizerKey(Transcriber.SAMPLE_RATE, json);
+    }
+
+    public List<String> getPhrases() {
+        return phrases;
+    }
+
+    public boolean isAllowUnknown() {
+        return allowUnknown;
+    }
+
+    public String toJson() {
+        return json;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CommandGrammar)) return false;
+        return json.equals(((CommandGrammar) o).json);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(json);
+    }
+
+    @Override
+    public String toString() {
+        return json;
+    }
+}
@@ -0,0 +1,27 @@
+package com.oxidesales.voskTranscriber;
+
+public class CommandMatch {
+
+    private final String command;
+
+    // Stream position when the utterance ended, seconds of audio accepted so far
+    private final double streamSeconds;
+
+    public CommandMatch(String command, double streamSeconds) {
+        this.command = command;
+        this.streamSeconds = streamSeconds;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public double getStreamSeconds() {
+        return streamSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%.2f s] %s", streamSeconds, command);
+    }
+}
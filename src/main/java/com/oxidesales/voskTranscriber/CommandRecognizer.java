@@ -0,0 +1,75 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.Recognizer;
+
+import java.io.IOException;
+
+// Recognizes a fixed phrase list instead of free dictation. The decoding graph only holds the
+// grammar, which costs far less per chunk than the large-vocabulary search. Recognizers come
+// from a pool keyed by grammar, so switching command sets reuses ones built earlier.
+// One stream per instance, not thread-safe.
+public class CommandRecognizer implements AutoCloseable {
+
+    private final RecognizerPool recognizerPool;
+
+    private final VoskResultDecoder resultDecoder = new VoskResultDecoder();
+
+    private CommandGrammar grammar;
+
+    private PooledRecognizer pooledRecognizer;
+
+    private long acceptedBytes;
+
+    public CommandRecognizer(RecognizerPool recognizerPool, CommandGrammar grammar) throws IOException {
+        this.recognizerPool = recognizerPool;
+        this.grammar = grammar;
+        this.pooledRecognizer = recognizerPool.borrow(grammar.toRecognizerKey());
+    }
+
+    // The matched command as soon as an utterance ends on one, null otherwise. Partials are
+    // never requested, only endpoints are looked at.
+    public CommandMatch accept(byte[] audioData, int length) throws IOException {
+        Recognizer recognizer = pooledRecognizer.getRecognizer();
+        long acceptStart = System.nanoTime();
+        boolean isFinal = recognizer.acceptWaveForm(audioData, length);
+        TranscriberMetrics.global().recordChunk(length, System.nanoTime() - acceptStart);
+        acceptedBytes += length;
+
+        return isFinal ? match(recognizer.getResult()) : null;
+    }
+
+    // End of the stream, matches whatever utterance was still open
+    public CommandMatch finish() throws IOException {
+        return match(pooledRecognizer.getRecognizer().getFinalResult());
+    }
+
+    private CommandMatch match(String jsonResult) throws IOException {
+        resultDecoder.decode(jsonResult);
+        String command = grammar.match(resultDecoder);
+        return command != null ? new CommandMatch(command, getAcceptedSeconds()) : null;
+    }
+
+    // Drops the open utterance and continues the stream with another command set
+    public void setGrammar(CommandGrammar grammar) throws IOException {
+        if (grammar.equals(this.grammar)) {
+            return;
+        }
+        PooledRecognizer next = recognizerPool.borrow(grammar.toRecognizerKey());
+        pooledRecognizer.close();
+        pooledRecognizer = next;
+        this.grammar = grammar;
+    }
+
+    public CommandGrammar getGrammar() {
+        return grammar;
+    }
+
+    public double getAcceptedSeconds() {
+        return acceptedBytes / (double) Transcriber.BYTES_PER_SECOND;
+    }
+
+    @Override
+    public void close() {
+        pooledRecognizer.close();
+    }
+}
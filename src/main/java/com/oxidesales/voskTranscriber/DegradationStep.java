@@ -0,0 +1,23 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.Locale;
+
+// What an overloaded live stream gives up to keep its captions close to real time. Steps
+// are applied in the order of the configured ladder and stay applied while later ones are.
+public enum DegradationStep {
+    // No partial results, they cost a decoder traceback each
+    NO_PARTIALS,
+    // Throughput-sized chunks, fewer calls for the same audio
+    LARGE_CHUNKS,
+    // A smaller, faster model until the load drops
+    FALLBACK_MODEL;
+
+    // Accepts "no-partials", "LARGE_CHUNKS", "fallback-model", ...
+    public static DegradationStep parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,41 @@
+package com.oxidesales.voskTranscriber;
+
+public class FileTranscription {
+
+    private final String text;
+
+    private final long audioBytes;
+
+    // Audio the voice activity gate kept away from the recognizer
+    private final long skippedBytes;
+
+    public FileTranscription(String text, long audioBytes) {
+        this(text, audioBytes, 0);
+    }
+
+    public FileTranscription(String text, long audioBytes, long skippedBytes) {
+        this.text = text;
+        this.audioBytes = audioBytes;
+        this.skippedBytes = skippedBytes;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public long getAudioBytes() {
+        return audioBytes;
+    }
+
+    public double getAudioSeconds() {
+        return audioBytes / (double) Transcriber.BYTES_PER_SECOND;
+    }
+
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    public double getSkippedFraction() {
+        return audioBytes > 0 ? skippedBytes / (double) audioBytes : 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.oxidesales.voskTranscriber;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.TargetDataLine;
+
+// The local microphone. The only live source that needs javax.sound, pipes and sockets
+// never load it.
+public class LineAudioSource implements AudioSource {
+
+    private final TargetDataLine line;
+
+    public LineAudioSource(TargetDataLine line) {
+        this.line = line;
+    }
+
+    public static AudioFormat audioFormat() {
+        return new AudioFormat(
+                AudioFormat.Encoding.PCM_SIGNED,
+                Transcriber.SAMPLE_RATE,
+                Transcriber.SAMPLE_SIZE_BITS,
+                Transcriber.CHANNELS,
+                (Transcriber.SAMPLE_SIZE_BITS / 8) * Transcriber.CHANNELS,
+                Transcriber.SAMPLE_RATE,
+                Transcriber.BIG_ENDIAN
+        );
+    }
+
+    // Opens and starts the default microphone
+    public static LineAudioSource open(int lineBufferBytes) throws LineUnavailableException {
+        AudioFormat audioFormat = audioFormat();
+        DataLine.Info info = new DataLine.Info(TargetDataLine.class, audioFormat);
+
+        if (!AudioSystem.isLineSupported(info)) {
+            throw new LineUnavailableException("Audio format not supported by system");
+        }
+
+        TargetDataLine microphone = (TargetDataLine) AudioSystem.getLine(info);
+        microphone.open(audioFormat, lineBufferBytes);
+        microphone.start();
+        return new LineAudioSource(microphone);
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        return line.read(buffer, offset, length);
+    }
+
+    public TargetDataLine getLine() {
+        return line;
+    }
+
+    @Override
+    public void close() {
+        line.stop();
+        line.close();
+    }
+}
@@ -0,0 +1,86 @@
+package com.oxidesales.voskTranscriber;
+
+// One step of a load test: N replayed streams decoding side by side for a while
+public class LoadStepResult {
+
+    private final int streams;
+
+    private final double meanRealTimeFactor;
+
+    private final double maxRealTimeFactor;
+
+    // Audio-to-final latency over all streams, microseconds
+    private final LatencyHistogram finalLatency;
+
+    private final double worstStreamP99Millis;
+
+    private final double maxBacklogSeconds;
+
+    private final long droppedBytes;
+
+    // Streams that took at least one degradation step, 0 without overload control
+    private final int degradedStreams;
+
+    public LoadStepResult(int streams, double meanRealTimeFactor, double maxRealTimeFactor,
+                          LatencyHistogram finalLatency, double worstStreamP99Millis,
+                          double maxBacklogSeconds, long droppedBytes, int degradedStreams) {
+        this.streams = streams;
+        this.meanRealTimeFactor = meanRealTimeFactor;
+        this.maxRealTimeFactor = maxRealTimeFactor;
+        this.finalLatency = finalLatency;
+        this.worstStreamP99Millis = worstStreamP99Millis;
+        this.maxBacklogSeconds = maxBacklogSeconds;
+        this.droppedBytes = droppedBytes;
+        this.degradedStreams = degradedStreams;
+    }
+
+    public int getStreams() {
+        return streams;
+    }
+
+    public double getMeanRealTimeFactor() {
+        return meanRealTimeFactor;
+    }
+
+    public double getMaxRealTimeFactor() {
+        return maxRealTimeFactor;
+    }
+
+    public LatencyHistogram getFinalLatency() {
+        return finalLatency;
+    }
+
+    public double getWorstStreamP99Millis() {
+        return worstStreamP99Millis;
+    }
+
+    public double getMaxBacklogSeconds() {
+        return maxBacklogSeconds;
+    }
+
+    public long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    public int getDegradedStreams() {
+        return degradedStreams;
+    }
+
+    // Every stream decodes faster than its audio arrives and never had to catch up; a backlog
+    // also shows streams starved of CPU, which their own decode times do not
+    public boolean isSustainable() {
+        return maxRealTimeFactor < 1 && droppedBytes == 0
+                && maxBacklogSeconds * Transcriber.BYTES_PER_SECOND < MicrophoneStreamProcessor.CATCH_UP_THRESHOLD_BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%3d streams: RTF mean %.2f max %.2f, final latency p50 %.0f ms p95 %.0f ms "
+                        + "p99 %.0f ms (worst stream p99 %.0f ms), backlog max %.1f s, %d bytes dropped, "
+                        + "%d streams degraded",
+                streams, meanRealTimeFactor, maxRealTimeFactor,
+                finalLatency.getPercentile(50) / 1000.0, finalLatency.getPercentile(95) / 1000.0,
+                finalLatency.getPercentile(99) / 1000.0, worstStreamP99Millis,
+                maxBacklogSeconds, droppedBytes, degradedStreams);
+    }
+}
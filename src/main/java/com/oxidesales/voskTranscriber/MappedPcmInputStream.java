@@ -0,0 +1,70 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+// Reads a byte range of a file through memory-mapped windows, no intermediate stream buffers
+public class MappedPcmInputStream extends InputStream {
+
+    private static final long WINDOW_BYTES = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+
+    private final long end;
+
+    private long windowStart;
+
+    private MappedByteBuffer window;
+
+    public MappedPcmInputStream(FileChannel channel, long offset, long length) throws IOException {
+        this.channel = channel;
+        this.end = offset + length;
+        this.windowStart = offset;
+        mapWindow();
+    }
+
+    private void mapWindow() throws IOException {
+        long size = Math.min(WINDOW_BYTES, end - windowStart);
+        window = size > 0 ? channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size) : null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (window != null && !window.hasRemaining()) {
+            windowStart += window.capacity();
+            mapWindow();
+        }
+        if (window == null) {
+            return -1;
+        }
+        int count = Math.min(length, window.remaining());
+        window.get(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return window == null ? 0 : window.remaining();
+    }
+
+    public long remaining() {
+        return window == null ? 0 : end - windowStart - window.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
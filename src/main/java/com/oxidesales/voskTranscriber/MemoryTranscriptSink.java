@@ -0,0 +1,65 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+
+// Keeps the most recent utterances up to a character budget, older ones are dropped
+public class MemoryTranscriptSink implements TranscriptSink {
+
+    public static final int DEFAULT_MAX_CHARS = 1_000_000;
+
+    private final ArrayDeque<String> utterances = new ArrayDeque<>();
+
+    private final int maxChars;
+
+    private long chars;
+
+    private long droppedUtterances;
+
+    public MemoryTranscriptSink() {
+        this(DEFAULT_MAX_CHARS);
+    }
+
+    public MemoryTranscriptSink(int maxChars) {
+        if (maxChars < 1) {
+            throw new IllegalArgumentException("Window must hold at least one character");
+        }
+        this.maxChars = maxChars;
+    }
+
+    @Override
+    public synchronized void append(String utterance) {
+        utterances.addLast(utterance);
+        chars += utterance.length() + 1;
+        // The newest utterance always stays, even when it alone is over the budget
+        while (chars > maxChars && utterances.size() > 1) {
+            chars -= utterances.removeFirst().length() + 1;
+            droppedUtterances++;
+        }
+    }
+
+    @Override
+    public synchronized String getRecentTranscription() {
+        return String.join(" ", utterances);
+    }
+
+    @Override
+    public synchronized void writeTo(Appendable out) throws IOException {
+        for (String utterance : utterances) {
+            out.append(utterance).append(' ');
+        }
+    }
+
+    public synchronized long getDroppedUtterances() {
+        return droppedUtterances;
+    }
+
+    public synchronized void clear() {
+        utterances.clear();
+        chars = 0;
+    }
+
+    @Override
+    public void close() {
+    }
+}
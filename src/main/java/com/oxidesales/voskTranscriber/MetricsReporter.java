@@ -0,0 +1,63 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Prints a metrics line every interval. The real-time factor is for the interval alone,
+// so a decoder that starts falling behind shows up at once instead of being averaged away.
+public class MetricsReporter implements AutoCloseable {
+
+    private final TranscriberMetrics metrics;
+
+    private final ScheduledExecutorService scheduler;
+
+    private long lastDecodeNanos;
+
+    private long lastAudioBytes;
+
+    private long lastChunks;
+
+    public MetricsReporter(TranscriberMetrics metrics) {
+        this.metrics = metrics;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start(long intervalSeconds) {
+        lastDecodeNanos = metrics.getDecodeNanos();
+        lastAudioBytes = metrics.getAudioBytesDecoded();
+        lastChunks = metrics.getChunksProcessed();
+        scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    void report() {
+        long decodeNanos = metrics.getDecodeNanos();
+        long audioBytes = metrics.getAudioBytesDecoded();
+        long chunks = metrics.getChunksProcessed();
+        double intervalRtf = TranscriberMetrics.realTimeFactor(decodeNanos - lastDecodeNanos, audioBytes - lastAudioBytes);
+        long intervalChunks = chunks - lastChunks;
+        lastDecodeNanos = decodeNanos;
+        lastAudioBytes = audioBytes;
+        lastChunks = chunks;
+
+        System.out.printf("📈 chunks: %d (+%d), RTF: %.2f, partial p50/p99: %.0f/%.0f ms, "
+                        + "final p50/p99: %.0f/%.0f ms, acceptWaveForm p99: %.0f µs, recognizers: %d, parse errors: %d%n",
+                chunks, intervalChunks, intervalRtf,
+                metrics.getPartialLatencyP50Millis(), metrics.getPartialLatencyP99Millis(),
+                metrics.getFinalLatencyP50Millis(), metrics.getFinalLatencyP99Millis(),
+                metrics.getAcceptWaveFormP99Micros(), metrics.getActiveRecognizers(), metrics.getParseErrors());
+
+        if (intervalRtf > 1.0) {
+            System.err.printf("⚠️ Decoding is behind real time (RTF %.2f)%n", intervalRtf);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,105 @@
+package com.oxidesales.voskTranscriber;
+
+import javax.sound.sampled.LineUnavailableException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// An audio source plus a thread that only moves audio from it into a ring buffer, so a slow
+// decode can never make the line's own small buffer overrun. It needs no model and can be
+// opened before one is loaded; whatever is said meanwhile waits in the ring. Load tests run
+// replayed sources through it in place of the microphone, piped PCM comes in the same way.
+public class MicrophoneCapture implements AutoCloseable {
+
+    private final AudioSource source;
+
+    private final AudioRingBuffer ringBuffer;
+
+    private final int captureBytes;
+
+    private final AtomicBoolean capturing = new AtomicBoolean(true);
+
+    private final Thread captureThread;
+
+    private final long startedNanos = System.nanoTime();
+
+    private MicrophoneCapture(AudioSource source, AudioRingBuffer ringBuffer, int captureBytes) {
+        this.source = source;
+        this.ringBuffer = ringBuffer;
+        this.captureBytes = captureBytes;
+        this.captureThread = new Thread(this::captureAudioStream, "audio-capture");
+        this.captureThread.setDaemon(true);
+    }
+
+    public static MicrophoneCapture open(ChunkProfile chunkProfile, double bufferSeconds, OverflowPolicy overflowPolicy)
+            throws LineUnavailableException {
+        LineAudioSource microphone = LineAudioSource.open(chunkProfile.getLineBufferBytes());
+
+        // Small reads keep the line drained, the decode side sets its own chunk size
+        int captureBytes = Math.min(chunkProfile.getChunkBytes(), chunkProfile.getLineBufferBytes() / 2);
+        return start(microphone, captureBytes, AudioRingBuffer.forSeconds(bufferSeconds, overflowPolicy));
+    }
+
+    // Captures from any source, captureBytes per read
+    public static MicrophoneCapture start(AudioSource source, int captureBytes, AudioRingBuffer ringBuffer) {
+        MicrophoneCapture capture = new MicrophoneCapture(source, ringBuffer, captureBytes);
+        capture.captureThread.start();
+        return capture;
+    }
+
+    private void captureAudioStream() {
+        byte[] buffer = new byte[captureBytes];
+
+        try {
+            while (capturing.get()) {
+                int bytesRead = source.read(buffer, 0, buffer.length);
+
+                if (bytesRead > 0) {
+                    ringBuffer.write(buffer, 0, bytesRead);
+                } else if (bytesRead < 0) {
+                    // A replay or pipe ran out, a line never does
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            if (capturing.get()) {
+                System.err.println("❌ Error capturing audio stream: " + e.getMessage());
+            }
+        } finally {
+            // Let the decode thread drain what is buffered and finish
+            ringBuffer.close();
+        }
+    }
+
+    public AudioSource getSource() {
+        return source;
+    }
+
+    public AudioRingBuffer getRingBuffer() {
+        return ringBuffer;
+    }
+
+    public boolean isCapturing() {
+        return capturing.get();
+    }
+
+    // Audio waiting for the decoder
+    public double getBufferedSeconds() {
+        return ringBuffer.fillLevel() / (double) Transcriber.BYTES_PER_SECOND;
+    }
+
+    public double getOpenSeconds() {
+        return (System.nanoTime() - startedNanos) / 1e9;
+    }
+
+    // Stops the source, the decoder still drains what the ring holds
+    public void stop() {
+        if (capturing.compareAndSet(true, false)) {
+            source.close();
+            ringBuffer.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+}
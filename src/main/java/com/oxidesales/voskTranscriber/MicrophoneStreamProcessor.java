@@ -2,63 +2,375 @@ package com.oxidesales.voskTranscriber;
 
 import org.vosk.Recognizer;
 
-import javax.sound.sampled.TargetDataLine;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MicrophoneStreamProcessor {
 
-    private final TargetDataLine microphone;
+    // Read directly by processAudioStream, the two-thread mode reads the ring buffer instead
+    private final AudioSource audioSource;
 
     private final Recognizer recognizer;
 
+    // The recognizer being fed, a fallback model's one while that ladder step is applied
+    private Recognizer activeRecognizer;
+
+    // Degrades this stream when it falls behind, null keeps full quality under any load
+    private OverloadController overloadController;
+
+    // Where the fallback model's recognizers come from, null leaves that step out
+    private RecognizerPool fallbackPool;
+
+    private PooledRecognizer fallbackRecognizer;
+
+    // Audio the primary recognizer missed while the fallback decoded, and where the fallback
+    // started. Both are in bytes fed to a recognizer, which is what recognizer clocks count.
+    private long primaryOffsetBytes;
+    private long fallbackStartBytes;
+
     private final TranscriptionRecognizerResultHandler transcriptionRecognizerResultHandler;
 
     private final AtomicBoolean isRecording;
 
+    // Decouples capture from decoding, null when both run on one thread
+    private final AudioRingBuffer ringBuffer;
+
+    // Skips silence before the recognizer, null feeds every chunk
+    private VoiceActivityGate voiceActivityGate;
+
+    private final TranscriberMetrics metrics = TranscriberMetrics.global();
+
+    // Chunk size and partial rate, the adaptive sizer overrides the profile's chunk size
+    private ChunkProfile chunkProfile = ChunkProfile.BALANCED;
+
+    private AdaptiveChunkSizer adaptiveChunkSizer;
+
+    private long lastPartialNanos;
+
+    // Overrides the profile's partial interval when 0 or more
+    private int partialIntervalMillis = -1;
+
+    // A backlog beyond this, e.g. audio buffered while the model loaded, is decoded in
+    // catch-up mode: big chunks and no partials until the decoder is back at the live edge
+    public static final int CATCH_UP_THRESHOLD_BYTES = 2 * Transcriber.BYTES_PER_SECOND;
+    public static final int CATCH_UP_CHUNK_BYTES = ChunkProfile.THROUGHPUT.getChunkBytes();
+
+    private volatile boolean catchingUp;
+
+    // This stream's own numbers, e.g. one processor per simulated stream in a load test
+    private LatencyHistogram finalLatency;
+    private volatile long decodedBytes;
+    private volatile long decodeNanos;
+    private long catchUpStartNanos;
+    private long catchUpBytes;
+
     public MicrophoneStreamProcessor(
             Recognizer recognizer,
             TranscriptionRecognizerResultHandler transcriptionRecognizerResultHandler,
-            TargetDataLine microphone,
+            AudioSource audioSource,
             AtomicBoolean isRecording
+    ) {
+        this(recognizer, transcriptionRecognizerResultHandler, audioSource, isRecording, null);
+    }
+
+    public MicrophoneStreamProcessor(
+            Recognizer recognizer,
+            TranscriptionRecognizerResultHandler transcriptionRecognizerResultHandler,
+            AudioSource audioSource,
+            AtomicBoolean isRecording,
+            AudioRingBuffer ringBuffer
     ) {
         this.recognizer = recognizer;
+        this.activeRecognizer = recognizer;
         this.transcriptionRecognizerResultHandler = transcriptionRecognizerResultHandler;
-        this.microphone = microphone;
+        this.audioSource = audioSource;
         this.isRecording = isRecording;
+        this.ringBuffer = ringBuffer;
     }
 
     public void processAudioStream() {
-        byte[] buffer = new byte[Transcriber.CHUNK_SIZE];
+        byte[] buffer = new byte[maxChunkBytes()];
+        metrics.recognizerActivated();
 
-        while (isRecording.get() && microphone != null) {
-            try {
-                int bytesRead = microphone.read(buffer, 0, buffer.length);
+        try {
+            while (isRecording.get() && audioSource != null) {
+                try {
+                    int bytesRead = audioSource.read(buffer, 0, nextChunkBytes());
 
-                if (bytesRead > 0) {
-                    // Process audio chunk with Vosk
-                    processAudioChunk(buffer, bytesRead);
+                    if (bytesRead > 0) {
+                        // Process audio chunk with Vosk
+                        feedAudio(buffer, bytesRead, System.nanoTime());
+                    } else if (bytesRead < 0) {
+                        break;
+                    }
+
+                } catch (Exception e) {
+                    if (isRecording.get()) {
+                        System.err.println("❌ Error processing audio stream: " + e.getMessage());
+                    }
+                    break;
                 }
+            }
+        } finally {
+            metrics.recognizerReleased();
+        }
+    }
+
+    // Decode thread: feeds the recognizer from the ring buffer until capture has stopped. Once
+    // isRecording is cleared the backlog is dropped, stopping waits for one chunk at most.
+    public void decodeAudioStream() {
+        byte[] buffer = new byte[Math.max(maxChunkBytes(), CATCH_UP_CHUNK_BYTES)];
+        int bytesRead;
+        metrics.recognizerActivated();
 
-            } catch (Exception e) {
-                if (isRecording.get()) {
-                    System.err.println("❌ Error processing audio stream: " + e.getMessage());
+        try {
+            while ((bytesRead = ringBuffer.read(buffer, updateCatchUp())) != -1) {
+                if (!isRecording.get()) {
+                    break;
                 }
-                break;
+                if (bytesRead > 0) {
+                    if (catchingUp) {
+                        catchUpBytes += bytesRead;
+                    }
+                    // The end of this chunk arrived before everything still queued behind it
+                    long backlogNanos = ringBuffer.fillLevel() * 1_000_000_000L / Transcriber.BYTES_PER_SECOND;
+                    long now = System.nanoTime();
+                    // A startup backlog is catch-up's job, not a reason to degrade
+                    if (overloadController != null && !catchingUp) {
+                        applyOverloadStep(overloadController.update(backlogNanos, now), now);
+                    }
+                    feedAudio(buffer, bytesRead, now - backlogNanos);
+                }
+            }
+        } finally {
+            if (fallbackRecognizer != null) {
+                switchToPrimary();
+            }
+            metrics.recognizerReleased();
+        }
+    }
+
+    // Chunk size for the next read, switching catch-up mode on and off with the backlog
+    private int updateCatchUp() {
+        int backlog = ringBuffer.fillLevel();
+        if (!catchingUp && backlog > CATCH_UP_THRESHOLD_BYTES) {
+            catchingUp = true;
+            catchUpStartNanos = System.nanoTime();
+            catchUpBytes = 0;
+            System.out.printf("⏩ Catching up on %.1f s of buffered audio%n",
+                    backlog / (double) Transcriber.BYTES_PER_SECOND);
+        } else if (catchingUp && backlog < CATCH_UP_CHUNK_BYTES) {
+            catchingUp = false;
+            double seconds = catchUpBytes / (double) Transcriber.BYTES_PER_SECOND;
+            long millis = (System.nanoTime() - catchUpStartNanos) / 1_000_000;
+            System.out.printf("⏩ Caught up: %.1f s of audio decoded in %d ms (%.1fx real time)%n",
+                    seconds, millis, seconds * 1000 / Math.max(1, millis));
+        }
+        return catchingUp || isDegraded(DegradationStep.LARGE_CHUNKS) ? CATCH_UP_CHUNK_BYTES : nextChunkBytes();
+    }
+
+    private boolean isDegraded(DegradationStep step) {
+        return overloadController != null && overloadController.isApplied(step);
+    }
+
+    // Switches recognizers when the fallback step was taken or undone, the other steps are
+    // read from the controller where they apply
+    private void applyOverloadStep(DegradationStep step, long now) {
+        if (step != DegradationStep.FALLBACK_MODEL) {
+            return;
+        }
+        if (overloadController.isApplied(step)) {
+            if (!switchToFallback()) {
+                overloadController.rejectStep(step, now);
             }
+        } else {
+            switchToPrimary();
+        }
+    }
+
+    // The current utterance is closed on the old recognizer, the next one starts on the new.
+    // Recognizer clocks only count their own audio, so word times get each one's offset: a fresh
+    // fallback starts at the stream time of the switch, the primary falls behind by the
+    // fallback period.
+    private boolean switchToFallback() {
+        if (fallbackPool == null) {
+            return false;
+        }
+        try {
+            // Vosk does not rewind a reused recognizer's clock, only a fresh one starts at 0
+            fallbackRecognizer = fallbackPool.tryBorrowFresh(RecognizerKey.dictation());
+        } catch (IOException e) {
+            return false;
+        }
+        Recognizer fallback = fallbackRecognizer.getRecognizer();
+        if (transcriptionRecognizerResultHandler.getWordCollector() != null) {
+            fallback.setWords(true);
+        }
+        finishUtterance(recognizer);
+        fallbackStartBytes = decodedBytes;
+        transcriptionRecognizerResultHandler.setRecognizerOffsetSeconds(toSeconds(fallbackStartBytes));
+        activeRecognizer = fallback;
+        return true;
+    }
+
+    private void switchToPrimary() {
+        Recognizer fallback = fallbackRecognizer.getRecognizer();
+        finishUtterance(fallback);
+        fallbackRecognizer.close();
+        fallbackRecognizer = null;
+        primaryOffsetBytes += decodedBytes - fallbackStartBytes;
+        transcriptionRecognizerResultHandler.setRecognizerOffsetSeconds(toSeconds(primaryOffsetBytes));
+        activeRecognizer = recognizer;
+    }
+
+    private static double toSeconds(long bytes) {
+        return bytes / (double) Transcriber.BYTES_PER_SECOND;
+    }
+
+    private void finishUtterance(Recognizer finishing) {
+        try {
+            transcriptionRecognizerResultHandler.handleFinalResult(finishing.getFinalResult());
+        } catch (Exception e) {
+            System.err.println("❌ Error finishing utterance: " + e.getMessage());
+        }
+    }
+
+    public boolean isCatchingUp() {
+        return catchingUp;
+    }
+
+    private void feedAudio(byte[] audioData, int length, long audioInNanos) {
+        if (voiceActivityGate == null) {
+            processAudioChunk(audioData, length, audioInNanos);
+            return;
+        }
+        int voiced = voiceActivityGate.process(audioData, length);
+        if (voiced > 0) {
+            processAudioChunk(voiceActivityGate.output(), voiced, audioInNanos);
+        }
+    }
+
+    private int nextChunkBytes() {
+        return adaptiveChunkSizer != null ? adaptiveChunkSizer.getChunkBytes() : chunkProfile.getChunkBytes();
+    }
+
+    private int maxChunkBytes() {
+        return adaptiveChunkSizer != null ? AdaptiveChunkSizer.MAX_CHUNK_BYTES : chunkProfile.getChunkBytes();
+    }
+
+    // Set before the stream threads start
+    public void setChunkProfile(ChunkProfile chunkProfile) {
+        this.chunkProfile = chunkProfile;
+    }
+
+    public ChunkProfile getChunkProfile() {
+        return chunkProfile;
+    }
+
+    // Minimum time between partials, -1 falls back to the chunk profile's interval
+    public void setPartialIntervalMillis(int partialIntervalMillis) {
+        this.partialIntervalMillis = partialIntervalMillis;
+    }
+
+    // Null keeps the profile's fixed chunk size
+    public void setAdaptiveChunkSizer(AdaptiveChunkSizer adaptiveChunkSizer) {
+        this.adaptiveChunkSizer = adaptiveChunkSizer;
+    }
+
+    public AdaptiveChunkSizer getAdaptiveChunkSizer() {
+        return adaptiveChunkSizer;
+    }
+
+    public void setVoiceActivityGate(VoiceActivityGate voiceActivityGate) {
+        this.voiceActivityGate = voiceActivityGate;
+    }
+
+    public VoiceActivityGate getVoiceActivityGate() {
+        return voiceActivityGate;
+    }
+
+    // Audio-to-final latency of this stream in microseconds, on top of the global metrics
+    public void setFinalLatencyHistogram(LatencyHistogram finalLatency) {
+        this.finalLatency = finalLatency;
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes;
+    }
+
+    // Time spent inside acceptWaveForm
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    // Needs the ring buffer to see the lag. Without a fallback pool the ladder skips that step.
+    public void setOverloadController(OverloadController overloadController, RecognizerPool fallbackPool) {
+        this.overloadController = overloadController;
+        this.fallbackPool = fallbackPool;
+    }
+
+    public OverloadController getOverloadController() {
+        return overloadController;
+    }
+
+    public AudioRingBuffer getRingBuffer() {
+        return ringBuffer;
+    }
+
+    // Building a partial result costs a decoder traceback plus JSON both ways, so they are
+    // only fetched for a subscriber and no more often than the interval allows
+    private boolean partialDue() {
+        int interval = partialIntervalMillis >= 0 ? partialIntervalMillis : chunkProfile.getPartialIntervalMillis();
+        if (interval == 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - lastPartialNanos < interval * 1_000_000L) {
+            return false;
         }
+        lastPartialNanos = now;
+        return true;
     }
 
     public void processAudioChunk(byte[] audioData, int length) {
+        processAudioChunk(audioData, length, System.nanoTime());
+    }
+
+    // audioInNanos is when the chunk arrived from the line, result latencies are measured from it
+    public void processAudioChunk(byte[] audioData, int length, long audioInNanos) {
         try {
             // Feed audio data to recognizer
-            if (recognizer.acceptWaveForm(audioData, length)) {
+            long acceptStart = System.nanoTime();
+            Recognizer recognizer = activeRecognizer;
+            boolean isFinal = recognizer.acceptWaveForm(audioData, length);
+            long acceptNanos = System.nanoTime() - acceptStart;
+            metrics.recordChunk(length, acceptNanos);
+            decodedBytes += length;
+            decodeNanos += acceptNanos;
+            if (overloadController != null) {
+                overloadController.recordDecode(length, acceptNanos);
+            }
+            if (adaptiveChunkSizer != null && !catchingUp && !isDegraded(DegradationStep.LARGE_CHUNKS)) {
+                adaptiveChunkSizer.record(length, acceptNanos);
+            }
+
+            if (isFinal) {
                 // Final result available
                 String result = recognizer.getResult();
-                transcriptionRecognizerResultHandler.handleFinalResult(result);
-            } else {
+                if (transcriptionRecognizerResultHandler.handleFinalResult(result)) {
+                    metrics.recordFinal(audioInNanos);
+                    if (finalLatency != null) {
+                        finalLatency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - audioInNanos));
+                    }
+                }
+            } else if (!catchingUp && !isDegraded(DegradationStep.NO_PARTIALS)
+                    && transcriptionRecognizerResultHandler.wantsPartials() && partialDue()) {
                 // Partial result available
                 String partialResult = recognizer.getPartialResult();
-                transcriptionRecognizerResultHandler.handlePartialResult(partialResult);
+                if (transcriptionRecognizerResultHandler.handlePartialResult(partialResult)) {
+                    metrics.recordPartial(audioInNanos);
+                }
             }
 
         } catch (Exception e) {
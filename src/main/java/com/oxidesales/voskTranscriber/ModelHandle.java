@@ -0,0 +1,36 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.Model;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// A reference to a model held in the ModelRegistry. Close it instead of the Model, the
+// model itself stays loaded for the next user until the registry evicts it.
+public class ModelHandle implements AutoCloseable {
+
+    private final ModelRegistry registry;
+
+    private final ModelRegistry.Entry entry;
+
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    ModelHandle(ModelRegistry registry, ModelRegistry.Entry entry) {
+        this.registry = registry;
+        this.entry = entry;
+    }
+
+    public Model getModel() {
+        return entry.getModel();
+    }
+
+    public ModelMetadata getMetadata() {
+        return entry.getMetadata();
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            registry.release(entry);
+        }
+    }
+}
@@ -1,14 +1,10 @@
 package com.oxidesales.voskTranscriber;
 
+import java.nio.file.Paths;
+
 public class ModelLanguageDetector {
+    // Looks at the model directory name only, ModelMetadata.read also checks the README
     public String getModelLanguage(String modelPath) {
-        String path = modelPath.toLowerCase();
-        if (path.contains("en")) return "English";
-        if (path.contains("de")) return "German";
-        if (path.contains("fr")) return "French";
-        if (path.contains("es")) return "Spanish";
-        if (path.contains("ru")) return "Russian";
-        if (path.contains("zh")) return "Chinese";
-        return "Unknown";
+        return ModelMetadata.languageFromName(Paths.get(modelPath).getFileName().toString());
     }
 }
@@ -0,0 +1,146 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// What a model directory says about itself: the feature sample rate from conf/mfcc.conf,
+// the language from the directory name or README, and its size on disk, which is close
+// to what the loaded model costs in memory.
+public class ModelMetadata {
+
+    public static final int DEFAULT_SAMPLE_RATE = 16000;
+
+    // Language codes as they appear in vosk-model-... directory names
+    private static final Map<String, String> LANGUAGE_CODES = Map.ofEntries(
+            Map.entry("en", "English"), Map.entry("de", "German"),
+            Map.entry("fr", "French"), Map.entry("es", "Spanish"), Map.entry("ru", "Russian"),
+            Map.entry("cn", "Chinese"), Map.entry("zh", "Chinese"), Map.entry("it", "Italian"),
+            Map.entry("pt", "Portuguese"), Map.entry("nl", "Dutch"), Map.entry("pl", "Polish"),
+            Map.entry("uk", "Ukrainian"), Map.entry("tr", "Turkish"), Map.entry("ja", "Japanese"),
+            Map.entry("ko", "Korean"), Map.entry("hi", "Hindi"), Map.entry("ar", "Arabic"),
+            Map.entry("fa", "Persian"), Map.entry("cs", "Czech"), Map.entry("sv", "Swedish"),
+            Map.entry("vn", "Vietnamese"), Map.entry("el", "Greek"), Map.entry("ca", "Catalan"));
+
+    private static final List<String> LANGUAGE_NAMES = List.of(
+            "English", "German", "French", "Spanish", "Russian", "Chinese", "Italian", "Portuguese",
+            "Dutch", "Polish", "Ukrainian", "Turkish", "Japanese", "Korean", "Hindi", "Arabic",
+            "Persian", "Czech", "Swedish", "Vietnamese", "Greek", "Catalan");
+
+    private final Path path;
+
+    private final String language;
+
+    private final int sampleRate;
+
+    private final long sizeBytes;
+
+    public ModelMetadata(Path path, String language, int sampleRate, long sizeBytes) {
+        this.path = path;
+        this.language = language;
+        this.sampleRate = sampleRate;
+        this.sizeBytes = sizeBytes;
+    }
+
+    public static ModelMetadata read(Path modelDir) throws IOException {
+        if (!Files.isDirectory(modelDir)) {
+            throw new IOException("Vosk model directory not found: " + modelDir);
+        }
+
+        String language = languageFromName(modelDir.getFileName().toString());
+        if (language.equals("Unknown")) {
+            language = languageFromReadme(modelDir);
+        }
+        return new ModelMetadata(modelDir, language, readSampleRate(modelDir), directorySize(modelDir));
+    }
+
+    // Whole tokens only: "vosk-model-small-de-0.15" is German, "vosk-model-en-us-0.22" English.
+    // A code inside another word ("fr" in "frozen", "en" in "general") does not count.
+    static String languageFromName(String name) {
+        for (String token : name.toLowerCase(Locale.ROOT).split("[^a-z]+")) {
+            String language = LANGUAGE_CODES.get(token);
+            if (language != null) {
+                return language;
+            }
+        }
+        return "Unknown";
+    }
+
+    private static String languageFromReadme(Path modelDir) {
+        Path readme = modelDir.resolve("README");
+        if (!Files.isRegularFile(readme)) {
+            return "Unknown";
+        }
+        try {
+            // The first lines name the model, e.g. "US English model for mobile Vosk applications"
+            List<String> lines = Files.readAllLines(readme, StandardCharsets.UTF_8);
+            for (String line : lines.subList(0, Math.min(5, lines.size()))) {
+                for (String name : LANGUAGE_NAMES) {
+                    if (line.matches("(?i).*\\b" + name + "\\b.*")) {
+                        return name;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Unreadable README, the language stays unknown
+        }
+        return "Unknown";
+    }
+
+    private static int readSampleRate(Path modelDir) throws IOException {
+        Path mfccConf = modelDir.resolve("conf").resolve("mfcc.conf");
+        if (!Files.isRegularFile(mfccConf)) {
+            return DEFAULT_SAMPLE_RATE;
+        }
+        for (String line : Files.readAllLines(mfccConf, StandardCharsets.UTF_8)) {
+            String option = line.trim();
+            if (option.startsWith("--sample-frequency=")) {
+                try {
+                    return (int) Double.parseDouble(option.substring("--sample-frequency=".length()).trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Bad sample frequency in " + mfccConf + ": " + option, e);
+                }
+            }
+        }
+        return DEFAULT_SAMPLE_RATE;
+    }
+
+    private static long directorySize(Path modelDir) throws IOException {
+        try (Stream<Path> files = Files.walk(modelDir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s, %d Hz, %d MB)", path.getFileName(), language, sampleRate,
+                sizeBytes / (1024 * 1024));
+    }
+}
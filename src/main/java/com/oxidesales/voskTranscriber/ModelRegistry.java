@@ -0,0 +1,203 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.Model;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// Process-wide cache of loaded Vosk models. The first acquire of a directory loads it, later
+// ones share the same Model and return in microseconds. Models nobody holds stay loaded until
+// the memory budget is exceeded, then the least recently used idle ones are closed. Models in
+// use are never evicted, so the budget can be overshot while they are all busy.
+public class ModelRegistry {
+
+    // Megabytes, e.g. -Dvosk.model.budget.mb=4096; unset keeps every idle model loaded
+    public static final String BUDGET_PROPERTY = "vosk.model.budget.mb";
+
+    private static final ModelRegistry GLOBAL = new ModelRegistry(budgetFromProperty());
+
+    // Access ordered, the first idle entry is the least recently used
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long memoryBudgetBytes;
+
+    private long loadedBytes;
+
+    private long loads;
+
+    private long evictions;
+
+    public ModelRegistry(long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    public static ModelRegistry global() {
+        return GLOBAL;
+    }
+
+    private static long budgetFromProperty() {
+        String budget = System.getProperty(BUDGET_PROPERTY);
+        return budget != null ? Long.parseLong(budget.trim()) * 1024 * 1024 : Long.MAX_VALUE;
+    }
+
+    // Blocks while another thread loads the same model, the load itself runs outside the lock
+    public ModelHandle acquire(String modelPath) throws IOException {
+        Path key = Paths.get(modelPath).toAbsolutePath().normalize();
+        Entry entry;
+        boolean loader = false;
+
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(key);
+                entries.put(key, entry);
+                loader = true;
+            }
+            entry.refCount++;
+        }
+
+        if (loader) {
+            load(entry);
+        }
+
+        try {
+            entry.loaded.get();
+        } catch (InterruptedException e) {
+            release(entry);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading " + key);
+        } catch (ExecutionException e) {
+            release(entry);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof Error) {
+                // E.g. the native library is missing, not worth hiding behind an IOException
+                throw (Error) cause;
+            }
+            throw new IOException("Failed to load Vosk model " + key, cause);
+        }
+        return new ModelHandle(this, entry);
+    }
+
+    private void load(Entry entry) {
+        try {
+            long startTime = System.currentTimeMillis();
+            ModelMetadata metadata = ModelMetadata.read(entry.path);
+            Model model = new Model(entry.path.toString());
+            System.out.printf("📦 Loaded model %s in %d ms%n", metadata, System.currentTimeMillis() - startTime);
+
+            synchronized (this) {
+                entry.metadata = metadata;
+                entry.model = model;
+                loadedBytes += metadata.getSizeBytes();
+                loads++;
+                evictIdle();
+            }
+            entry.loaded.complete(model);
+        } catch (Throwable e) {
+            // Also an Error from the native side, waiters on the entry would block forever otherwise
+            synchronized (this) {
+                // Not cached, the next acquire tries again
+                entries.remove(entry.path, entry);
+            }
+            entry.loaded.completeExceptionally(e);
+        }
+    }
+
+    synchronized void release(Entry entry) {
+        entry.refCount--;
+        evictIdle();
+    }
+
+    // Caller holds the lock
+    private void evictIdle() {
+        if (loadedBytes <= memoryBudgetBytes) {
+            return;
+        }
+        List<Entry> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Path, Entry>> iterator = entries.entrySet().iterator();
+        while (loadedBytes > memoryBudgetBytes && iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.refCount == 0 && entry.model != null) {
+                iterator.remove();
+                loadedBytes -= entry.metadata.getSizeBytes();
+                evictions++;
+                evicted.add(entry);
+            }
+        }
+        for (Entry entry : evicted) {
+            System.out.println("♻️  Evicted idle model " + entry.metadata);
+            entry.model.close();
+        }
+    }
+
+    public synchronized void setMemoryBudgetBytes(long memoryBudgetBytes) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        evictIdle();
+    }
+
+    public synchronized long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    public synchronized long getLoadedBytes() {
+        return loadedBytes;
+    }
+
+    public synchronized int getLoadedCount() {
+        int loaded = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.model != null) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized long getLoads() {
+        return loads;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    // Closes every idle model, e.g. at shutdown
+    public synchronized void clearIdle() {
+        long budget = memoryBudgetBytes;
+        memoryBudgetBytes = 0;
+        evictIdle();
+        memoryBudgetBytes = budget;
+    }
+
+    static class Entry {
+        private final Path path;
+        private final CompletableFuture<Model> loaded = new CompletableFuture<>();
+        private ModelMetadata metadata;
+        private Model model;
+        private int refCount;
+
+        private Entry(Path path) {
+            this.path = path;
+        }
+
+        Model getModel() {
+            return model;
+        }
+
+        ModelMetadata getMetadata() {
+            return metadata;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.oxidesales.voskTranscriber;
+
+// What a bounded buffer does when the producer is faster than the consumer
+public enum OverflowPolicy {
+    // Producer waits for free space
+    BLOCK,
+    // Oldest unread data is discarded to make room
+    DROP_OLDEST,
+    // Incoming data that does not fit is discarded
+    DROP_NEWEST
+}
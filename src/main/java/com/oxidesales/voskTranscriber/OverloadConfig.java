@@ -0,0 +1,100 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OverloadConfig {
+
+    // Degradation steps in the order they are taken
+    private final List<DegradationStep> ladder;
+
+    // Audio waiting behind the live edge for this long, for degradeHoldMillis, takes the next step
+    private final int degradeLagMillis;
+    private final int degradeHoldMillis;
+
+    // A step is undone once the lag stays below recoverLagMillis and decoding has headroom
+    // (real-time factor below recoverRealTimeFactor) for recoverHoldMillis. The hold is the
+    // longer one so a stream does not flap between two levels.
+    private final int recoverLagMillis;
+    private final double recoverRealTimeFactor;
+    private final int recoverHoldMillis;
+
+    public OverloadConfig(List<DegradationStep> ladder, int degradeLagMillis, int degradeHoldMillis,
+                          int recoverLagMillis, double recoverRealTimeFactor, int recoverHoldMillis) {
+        if (recoverLagMillis >= degradeLagMillis) {
+            throw new IllegalArgumentException("Recover lag must be below the degrade lag");
+        }
+        if (degradeHoldMillis < 0 || recoverHoldMillis < 0) {
+            throw new IllegalArgumentException("Overload hold times must not be negative");
+        }
+        this.ladder = List.copyOf(ladder);
+        this.degradeLagMillis = degradeLagMillis;
+        this.degradeHoldMillis = degradeHoldMillis;
+        this.recoverLagMillis = recoverLagMillis;
+        this.recoverRealTimeFactor = recoverRealTimeFactor;
+        this.recoverHoldMillis = recoverHoldMillis;
+    }
+
+    // Degrades well before the 2 s backlog that switches a stream to catch-up mode
+    public static OverloadConfig defaults() {
+        return new OverloadConfig(List.of(DegradationStep.values()), 750, 1000, 200, 0.6, 5000);
+    }
+
+    // The default thresholds with the given steps, e.g. "no-partials,large-chunks"
+    public static OverloadConfig parseLadder(String steps) {
+        List<DegradationStep> ladder = new ArrayList<>();
+        for (String step : steps.split(",")) {
+            if (!step.isBlank()) {
+                ladder.add(DegradationStep.parse(step));
+            }
+        }
+        return defaults().withLadder(ladder);
+    }
+
+    public OverloadConfig withLadder(List<DegradationStep> ladder) {
+        return new OverloadConfig(ladder, degradeLagMillis, degradeHoldMillis,
+                recoverLagMillis, recoverRealTimeFactor, recoverHoldMillis);
+    }
+
+    // The ladder without one step, e.g. the fallback model when none is configured
+    public OverloadConfig without(DegradationStep step) {
+        List<DegradationStep> remaining = new ArrayList<>(ladder);
+        remaining.remove(step);
+        return withLadder(remaining);
+    }
+
+    public List<DegradationStep> getLadder() {
+        return ladder;
+    }
+
+    public int getDegradeLagMillis() {
+        return degradeLagMillis;
+    }
+
+    public int getDegradeHoldMillis() {
+        return degradeHoldMillis;
+    }
+
+    public int getRecoverLagMillis() {
+        return recoverLagMillis;
+    }
+
+    public double getRecoverRealTimeFactor() {
+        return recoverRealTimeFactor;
+    }
+
+    public int getRecoverHoldMillis() {
+        return recoverHoldMillis;
+    }
+
+    @Override
+    public String toString() {
+        List<String> steps = new ArrayList<>();
+        for (DegradationStep step : ladder) {
+            steps.add(step.label());
+        }
+        return String.format("ladder %s, degrade above %d ms lag for %d ms, recover below %d ms and RTF %.2f for %d ms",
+                steps.isEmpty() ? "none" : String.join(" > ", steps), degradeLagMillis, degradeHoldMillis,
+                recoverLagMillis, recoverRealTimeFactor, recoverHoldMillis);
+    }
+}
@@ -0,0 +1,177 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.concurrent.TimeUnit;
+
+// Watches how far one live stream's decoder lags behind the wall clock and walks its
+// degradation ladder: a step further after the lag stayed high for a while, a step back once
+// it stayed low with decoding time to spare. Each stream has its own controller, so only the
+// streams that fall behind give up quality. Called from the stream's decode thread only,
+// except for the getters.
+public class OverloadController {
+
+    // Time constant of the smoothed real-time factor in seconds of audio, so it reacts as fast
+    // to big chunks as to small ones
+    private static final double SMOOTHING_SECONDS = 1.0;
+
+    private final String name;
+
+    private final OverloadConfig config;
+
+    private final long degradeLagNanos;
+    private final long degradeHoldNanos;
+    private final long recoverLagNanos;
+    private final long recoverHoldNanos;
+
+    // Number of ladder steps applied, 0 is full quality
+    private volatile int level;
+
+    private double smoothedRealTimeFactor;
+
+    // When the lag crossed the degrade or recover threshold, -1 while it has not
+    private long highSince = -1;
+    private long lowSince = -1;
+
+    private volatile long lastLagNanos;
+
+    private final long[] levelNanos;
+    private long levelSince = -1;
+
+    private volatile int degradations;
+    private volatile int recoveries;
+
+    public OverloadController(String name, OverloadConfig config) {
+        this.name = name;
+        this.config = config;
+        this.degradeLagNanos = TimeUnit.MILLISECONDS.toNanos(config.getDegradeLagMillis());
+        this.degradeHoldNanos = TimeUnit.MILLISECONDS.toNanos(config.getDegradeHoldMillis());
+        this.recoverLagNanos = TimeUnit.MILLISECONDS.toNanos(config.getRecoverLagMillis());
+        this.recoverHoldNanos = TimeUnit.MILLISECONDS.toNanos(config.getRecoverHoldMillis());
+        this.levelNanos = new long[config.getLadder().size() + 1];
+    }
+
+    // After every acceptWaveForm, in wall-clock time so CPU contention counts
+    public void recordDecode(int bytes, long acceptNanos) {
+        if (bytes <= 0) {
+            return;
+        }
+        double audioSeconds = bytes / (double) Transcriber.BYTES_PER_SECOND;
+        double weight = 1 - Math.exp(-audioSeconds / SMOOTHING_SECONDS);
+        smoothedRealTimeFactor += weight * (acceptNanos / 1e9 / audioSeconds - smoothedRealTimeFactor);
+    }
+
+    // lagNanos is the audio still queued behind the chunk just read. Returns the step that was
+    // taken or undone, null when the level stayed.
+    public DegradationStep update(long lagNanos, long nowNanos) {
+        lastLagNanos = lagNanos;
+        if (levelSince < 0) {
+            levelSince = nowNanos;
+        }
+
+        if (lagNanos > degradeLagNanos && level < config.getLadder().size()) {
+            lowSince = -1;
+            if (highSince < 0) {
+                highSince = nowNanos;
+            }
+            if (nowNanos - highSince >= degradeHoldNanos) {
+                DegradationStep step = config.getLadder().get(level);
+                changeLevel(level + 1, nowNanos);
+                degradations++;
+                System.out.printf("🐢 %s lags %.1f s behind, degrading: %s%n",
+                        name, lagNanos / 1e9, step.label());
+                return step;
+            }
+        } else if (lagNanos < recoverLagNanos && smoothedRealTimeFactor < config.getRecoverRealTimeFactor()
+                && level > 0) {
+            highSince = -1;
+            if (lowSince < 0) {
+                lowSince = nowNanos;
+            }
+            if (nowNanos - lowSince >= recoverHoldNanos) {
+                DegradationStep step = config.getLadder().get(level - 1);
+                changeLevel(level - 1, nowNanos);
+                recoveries++;
+                System.out.printf("🐇 %s back at the live edge (RTF %.2f), undoing: %s%n",
+                        name, smoothedRealTimeFactor, step.label());
+                return step;
+            }
+        } else {
+            highSince = -1;
+            lowSince = -1;
+        }
+        return null;
+    }
+
+    // Takes back a step that could not be applied, e.g. no fallback recognizer was free.
+    // The lag has to build up again before it is retried.
+    public void rejectStep(DegradationStep step, long nowNanos) {
+        if (level > 0 && config.getLadder().get(level - 1) == step) {
+            changeLevel(level - 1, nowNanos);
+            degradations--;
+            System.out.printf("⚠️  %s cannot degrade to %s, staying at %s%n", name, step.label(), getLevelLabel());
+        }
+    }
+
+    private void changeLevel(int newLevel, long nowNanos) {
+        levelNanos[level] += nowNanos - levelSince;
+        levelSince = nowNanos;
+        level = newLevel;
+        highSince = -1;
+        lowSince = -1;
+    }
+
+    public boolean isApplied(DegradationStep step) {
+        int index = config.getLadder().indexOf(step);
+        return index >= 0 && index < level;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getLevelLabel() {
+        return level == 0 ? "full" : config.getLadder().get(level - 1).label();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public OverloadConfig getConfig() {
+        return config;
+    }
+
+    public double getLastLagSeconds() {
+        return lastLagNanos / 1e9;
+    }
+
+    public int getDegradations() {
+        return degradations;
+    }
+
+    public int getRecoveries() {
+        return recoveries;
+    }
+
+    @Override
+    public String toString() {
+        long[] spent = levelNanos.clone();
+        if (levelSince >= 0) {
+            spent[level] += System.nanoTime() - levelSince;
+        }
+        long total = 0;
+        for (long nanos : spent) {
+            total += nanos;
+        }
+
+        StringBuilder shares = new StringBuilder();
+        for (int i = 0; i < spent.length; i++) {
+            if (spent[i] > 0) {
+                shares.append(shares.length() > 0 ? ", " : "")
+                        .append(i == 0 ? "full" : config.getLadder().get(i - 1).label())
+                        .append(String.format(" %.0f%%", spent[i] * 100.0 / Math.max(1, total)));
+            }
+        }
+        return String.format("%s: %d degradations, %d recoveries, now %s (%s)",
+                name, degradations, recoveries, getLevelLabel(), shares.length() > 0 ? shares : "idle");
+    }
+}
@@ -0,0 +1,165 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Streams interleaved integer or float PCM as 16 kHz mono 16-bit little-endian.
+// Channels are averaged, the rate is changed by linear interpolation behind a short
+// moving-average filter when downsampling. Works chunk by chunk with fixed buffers.
+public class PcmConvertingInputStream extends InputStream {
+
+    private final InputStream source;
+
+    private final boolean floatSamples;
+
+    private final int bytesPerSample;
+
+    private final int channels;
+
+    private final int frameBytes;
+
+    // Input samples per output sample
+    private final double step;
+
+    private final byte[] inputBuffer;
+    private int inputLength;
+
+    private final byte[] outputBuffer;
+    private int outputPosition;
+    private int outputLength;
+
+    // Moving-average anti-aliasing window, 1 disables it
+    private final double[] history;
+    private int historyIndex;
+    private double historySum;
+
+    // Resampler state, interpolating between previous and current input sample
+    private double previousSample;
+    private boolean havePrevious;
+    private double phase;
+
+    private boolean endOfInput;
+
+    public PcmConvertingInputStream(InputStream source, boolean floatSamples, int bitsPerSample, int channels,
+                                    int sampleRate) {
+        this.source = source;
+        this.floatSamples = floatSamples;
+        this.bytesPerSample = bitsPerSample / 8;
+        this.channels = channels;
+        this.frameBytes = bytesPerSample * channels;
+        this.step = sampleRate / (double) Transcriber.SAMPLE_RATE;
+        this.inputBuffer = new byte[frameBytes * 4096];
+        // Upsampling can produce more output samples than input frames
+        this.outputBuffer = new byte[(int) Math.ceil(4096 / step + 2) * 2];
+        this.history = new double[Math.max(1, (int) Math.round(step))];
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (outputPosition == outputLength) {
+            if (endOfInput) {
+                return -1;
+            }
+            convertNextBlock();
+        }
+        int count = Math.min(length, outputLength - outputPosition);
+        System.arraycopy(outputBuffer, outputPosition, buffer, offset, count);
+        outputPosition += count;
+        return count;
+    }
+
+    private void convertNextBlock() throws IOException {
+        int read = source.read(inputBuffer, inputLength, inputBuffer.length - inputLength);
+        if (read == -1) {
+            endOfInput = true;
+        } else {
+            inputLength += read;
+        }
+
+        outputPosition = 0;
+        outputLength = 0;
+
+        int frames = inputLength / frameBytes;
+        for (int frame = 0; frame < frames; frame++) {
+            double sample = filter(mixFrame(frame * frameBytes));
+
+            if (!havePrevious) {
+                previousSample = sample;
+                havePrevious = true;
+                continue;
+            }
+
+            while (phase < 1.0) {
+                writeSample(previousSample + (sample - previousSample) * phase);
+                phase += step;
+            }
+            phase -= 1.0;
+            previousSample = sample;
+        }
+
+        // Keep an incomplete trailing frame for the next block
+        int used = frames * frameBytes;
+        System.arraycopy(inputBuffer, used, inputBuffer, 0, inputLength - used);
+        inputLength -= used;
+
+        if (endOfInput && havePrevious && phase < 1.0) {
+            writeSample(previousSample);
+            havePrevious = false;
+        }
+    }
+
+    private double mixFrame(int offset) {
+        double sum = 0;
+        for (int channel = 0; channel < channels; channel++) {
+            sum += readSample(offset + channel * bytesPerSample);
+        }
+        return sum / channels;
+    }
+
+    // One little-endian sample scaled to the 16-bit range
+    private double readSample(int offset) {
+        byte[] in = inputBuffer;
+        switch (bytesPerSample) {
+            case 1:
+                return ((in[offset] & 0xff) - 128) << 8;
+            case 2:
+                return (short) ((in[offset] & 0xff) | (in[offset + 1] << 8));
+            case 3:
+                return ((in[offset] & 0xff) | ((in[offset + 1] & 0xff) << 8) | (in[offset + 2] << 16)) / 256.0;
+            default:
+                int bits = (in[offset] & 0xff) | ((in[offset + 1] & 0xff) << 8)
+                        | ((in[offset + 2] & 0xff) << 16) | (in[offset + 3] << 24);
+                return floatSamples ? Float.intBitsToFloat(bits) * 32767.0 : bits / 65536.0;
+        }
+    }
+
+    private double filter(double sample) {
+        if (history.length == 1) {
+            return sample;
+        }
+        historySum += sample - history[historyIndex];
+        history[historyIndex] = sample;
+        historyIndex = (historyIndex + 1) % history.length;
+        return historySum / history.length;
+    }
+
+    private void writeSample(double sample) {
+        int value = (int) Math.round(Math.max(-32768, Math.min(32767, sample)));
+        outputBuffer[outputLength++] = (byte) value;
+        outputBuffer[outputLength++] = (byte) (value >> 8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
@@ -0,0 +1,32 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.Recognizer;
+
+import java.lang.ref.Cleaner;
+
+// Borrowed recognizer, closing it hands it back to the pool
+public class PooledRecognizer implements AutoCloseable {
+
+    private final Recognizer recognizer;
+
+    private final RecognizerPool.Lease lease;
+
+    private final Cleaner.Cleanable cleanable;
+
+    PooledRecognizer(Recognizer recognizer, RecognizerPool.Lease lease, Cleaner cleaner) {
+        this.recognizer = recognizer;
+        this.lease = lease;
+        // Frees the native recognizer if this handle is dropped without close()
+        this.cleanable = cleaner.register(this, lease);
+    }
+
+    public Recognizer getRecognizer() {
+        return recognizer;
+    }
+
+    @Override
+    public void close() {
+        lease.markReturned();
+        cleanable.clean();
+    }
+}
@@ -0,0 +1,46 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.Objects;
+
+public class RecognizerKey {
+
+    private final float sampleRate;
+
+    // JSON phrase list as Vosk expects it, null for free dictation
+    private final String grammar;
+
+    public RecognizerKey(float sampleRate, String grammar) {
+        this.sampleRate = sampleRate;
+        this.grammar = grammar;
+    }
+
+    public static RecognizerKey dictation() {
+        return new RecognizerKey(Transcriber.SAMPLE_RATE, null);
+    }
+
+    public float getSampleRate() {
+        return sampleRate;
+    }
+
+    public String getGrammar() {
+        return grammar;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RecognizerKey)) return false;
+        RecognizerKey that = (RecognizerKey) o;
+        return Float.compare(sampleRate, that.sampleRate) == 0 && Objects.equals(grammar, that.grammar);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sampleRate, grammar);
+    }
+
+    @Override
+    public String toString() {
+        return grammar == null ? sampleRate + " Hz" : sampleRate + " Hz, grammar " + grammar;
+    }
+}
@@ -0,0 +1,281 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.Model;
+import org.vosk.Recognizer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.ref.Cleaner;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RecognizerPool implements AutoCloseable {
+
+    // Keys kept once nothing is borrowed for them, the least recently used beyond this are freed
+    public static final int DEFAULT_MAX_IDLE_KEYS = 16;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Model voskModel;
+
+    private final int maxPerKey;
+
+    private final int maxIdleKeys;
+
+    private final ConcurrentHashMap<RecognizerKey, KeyPool> pools = new ConcurrentHashMap<>();
+
+    // Leases that were handed out and not given back yet
+    private final Set<Lease> outstanding = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+
+    private volatile boolean closed;
+
+    public RecognizerPool(Model voskModel, int maxPerKey) {
+        this(voskModel, maxPerKey, DEFAULT_MAX_IDLE_KEYS);
+    }
+
+    public RecognizerPool(Model voskModel, int maxPerKey, int maxIdleKeys) {
+        if (maxPerKey < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        if (maxIdleKeys < 1) {
+            throw new IllegalArgumentException("Pool must keep at least one key");
+        }
+        this.voskModel = voskModel;
+        this.maxPerKey = maxPerKey;
+        this.maxIdleKeys = maxIdleKeys;
+    }
+
+    // Blocks until a recognizer for the key is available
+    public PooledRecognizer borrow(RecognizerKey key) throws IOException {
+        return borrow(key, -1);
+    }
+
+    public PooledRecognizer borrow(RecognizerKey key, long timeout, TimeUnit unit) throws IOException {
+        return borrow(key, unit.toNanos(Math.max(0, timeout)));
+    }
+
+    // Fails fast when every recognizer for the key is in use
+    public PooledRecognizer tryBorrow(RecognizerKey key) throws IOException {
+        return borrow(key, 0);
+    }
+
+    // A newly created recognizer, for callers that use word times. Vosk keeps counting
+    // samples across reset(), so a reused recognizer's times are offset by all the audio its
+    // earlier borrowers fed it. Blocks like borrow; an idle one is freed to stay within the limit.
+    public PooledRecognizer borrowFresh(RecognizerKey key) throws IOException {
+        return borrow(key, -1, true);
+    }
+
+    // A fresh recognizer, failing fast like tryBorrow
+    public PooledRecognizer tryBorrowFresh(RecognizerKey key) throws IOException {
+        return borrow(key, 0, true);
+    }
+
+    private PooledRecognizer borrow(RecognizerKey key, long timeoutNanos) throws IOException {
+        return borrow(key, timeoutNanos, false);
+    }
+
+    private PooledRecognizer borrow(RecognizerKey key, long timeoutNanos, boolean fresh) throws IOException {
+        ensureOpen();
+        KeyPool keyPool = pools.computeIfAbsent(key, k -> new KeyPool(maxPerKey));
+
+        if (!keyPool.permits.tryAcquire()) {
+            if (timeoutNanos == 0) {
+                throw new IOException("Recognizer pool exhausted for " + key);
+            }
+            waits.increment();
+            try {
+                if (timeoutNanos < 0) {
+                    keyPool.permits.acquire();
+                } else if (!keyPool.permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw new IOException("Timed out waiting for a recognizer for " + key);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a recognizer");
+            }
+        }
+        keyPool.lastUsed = System.nanoTime();
+        if (pools.size() > maxIdleKeys) {
+            evictIdleKeys();
+        }
+
+        Recognizer recognizer = keyPool.idle.pollFirst();
+        if (recognizer != null && fresh) {
+            recognizer.close();
+            recognizer = null;
+        }
+        if (recognizer != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            try {
+                recognizer = createRecognizer(key);
+            } catch (IOException | RuntimeException e) {
+                keyPool.permits.release();
+                throw e;
+            }
+        }
+
+        Lease lease = new Lease(this, keyPool, recognizer);
+        outstanding.add(lease);
+        TranscriberMetrics.global().recognizerActivated();
+        if (closed) {
+            lease.markReturned();
+            lease.run();
+            throw new IOException("Recognizer pool is closed");
+        }
+        return new PooledRecognizer(recognizer, lease, CLEANER);
+    }
+
+    private Recognizer createRecognizer(RecognizerKey key) throws IOException {
+        if (key.getGrammar() != null) {
+            return new Recognizer(voskModel, key.getSampleRate(), key.getGrammar());
+        }
+        return new Recognizer(voskModel, key.getSampleRate());
+    }
+
+    private void giveBack(Lease lease) {
+        outstanding.remove(lease);
+        TranscriberMetrics.global().recognizerReleased();
+
+        if (!lease.returned) {
+            // Never closed by its borrower, the native recognizer is freed here instead
+            leaked.increment();
+            lease.recognizer.close();
+        } else if (closed || lease.keyPool.evicted) {
+            lease.recognizer.close();
+        } else {
+            try {
+                lease.recognizer.reset();
+                lease.keyPool.idle.offerFirst(lease.recognizer);
+                // close() or an eviction may have drained the idle recognizers meanwhile
+                if ((closed || lease.keyPool.evicted) && lease.keyPool.idle.remove(lease.recognizer)) {
+                    lease.recognizer.close();
+                }
+            } catch (Exception e) {
+                lease.recognizer.close();
+            }
+        }
+
+        lease.keyPool.lastUsed = System.nanoTime();
+        lease.keyPool.permits.release();
+        if (pools.size() > maxIdleKeys) {
+            evictIdleKeys();
+        }
+    }
+
+    // Frees the least recently used keys with nothing borrowed until at most maxIdleKeys are
+    // left. Keys in use are never evicted, the count may stay above the cap while they run.
+    private synchronized void evictIdleKeys() {
+        while (pools.size() > maxIdleKeys) {
+            Map.Entry<RecognizerKey, KeyPool> oldest = null;
+            for (Map.Entry<RecognizerKey, KeyPool> entry : pools.entrySet()) {
+                KeyPool keyPool = entry.getValue();
+                if (keyPool.permits.availablePermits() == maxPerKey
+                        && (oldest == null || keyPool.lastUsed < oldest.getValue().lastUsed)) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+
+            // A borrower that looked the key up just before keeps using it, its recognizer is
+            // closed on return instead of going back to the evicted pool
+            KeyPool keyPool = oldest.getValue();
+            keyPool.evicted = true;
+            pools.remove(oldest.getKey(), keyPool);
+            closeIdle(keyPool);
+        }
+    }
+
+    private static void closeIdle(KeyPool keyPool) {
+        Recognizer recognizer;
+        while ((recognizer = keyPool.idle.pollFirst()) != null) {
+            recognizer.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Recognizer pool is closed");
+        }
+    }
+
+    public int getMaxPerKey() {
+        return maxPerKey;
+    }
+
+    public int getBorrowedCount() {
+        return outstanding.size();
+    }
+
+    public RecognizerPoolStats getStats() {
+        int idle = 0;
+        for (KeyPool keyPool : pools.values()) {
+            idle += keyPool.idle.size();
+        }
+        return new RecognizerPoolStats(hits.sum(), misses.sum(), waits.sum(), leaked.sum(), idle, outstanding.size());
+    }
+
+    // Frees the idle recognizers. Borrowed ones may still be decoding, they are freed as their
+    // borrowers return them; one that is never returned is freed by the cleaner.
+    @Override
+    public void close() {
+        closed = true;
+
+        for (KeyPool keyPool : pools.values()) {
+            closeIdle(keyPool);
+        }
+        pools.clear();
+    }
+
+    private static class KeyPool {
+        private final Semaphore permits;
+        private final ConcurrentLinkedDeque<Recognizer> idle = new ConcurrentLinkedDeque<>();
+        private volatile long lastUsed = System.nanoTime();
+        private volatile boolean evicted;
+
+        private KeyPool(int size) {
+            this.permits = new Semaphore(size);
+        }
+    }
+
+    // Shared between the borrower's handle and the cleaner, must not reference the handle itself
+    static class Lease implements Runnable {
+        private final RecognizerPool owner;
+        private final KeyPool keyPool;
+        private final Recognizer recognizer;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private volatile boolean returned;
+
+        private Lease(RecognizerPool owner, KeyPool keyPool, Recognizer recognizer) {
+            this.owner = owner;
+            this.keyPool = keyPool;
+            this.recognizer = recognizer;
+        }
+
+        void markReturned() {
+            returned = true;
+        }
+
+        @Override
+        public void run() {
+            if (released.compareAndSet(false, true)) {
+                owner.giveBack(this);
+            }
+        }
+    }
+}
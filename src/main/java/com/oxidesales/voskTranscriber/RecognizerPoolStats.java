@@ -0,0 +1,58 @@
+package com.oxidesales.voskTranscriber;
+
+public class RecognizerPoolStats {
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long waits;
+
+    private final long leaked;
+
+    private final int idle;
+
+    private final int borrowed;
+
+    public RecognizerPoolStats(long hits, long misses, long waits, long leaked, int idle, int borrowed) {
+        this.hits = hits;
+        this.misses = misses;
+        this.waits = waits;
+        this.leaked = leaked;
+        this.idle = idle;
+        this.borrowed = borrowed;
+    }
+
+    // Borrows served by an idle recognizer
+    public long getHits() {
+        return hits;
+    }
+
+    // Borrows that had to create a new native recognizer
+    public long getMisses() {
+        return misses;
+    }
+
+    // Borrows that had to wait for another borrower to give one back
+    public long getWaits() {
+        return waits;
+    }
+
+    public long getLeaked() {
+        return leaked;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getBorrowed() {
+        return borrowed;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + ", misses=" + misses + ", waits=" + waits + ", leaked=" + leaked
+                + ", idle=" + idle + ", borrowed=" + borrowed;
+    }
+}
@@ -0,0 +1,86 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Plays PCM back as if it came from a microphone: a read returns once its audio would have
+// been captured at the given pace, speed 2 delivers two seconds of audio per second. The
+// PCM wraps around until limitBytes are delivered, so several sources can share one clip
+// from different start offsets.
+public class ReplayAudioSource implements AudioSource {
+
+    private static final int FRAME_BYTES = (Transcriber.SAMPLE_SIZE_BITS / 8) * Transcriber.CHANNELS;
+
+    private final byte[] pcm;
+
+    private final long limitBytes;
+
+    private final double speed;
+
+    private int position;
+
+    private long deliveredBytes;
+
+    private long startNanos = -1;
+
+    private volatile boolean closed;
+
+    public ReplayAudioSource(byte[] pcm, int startOffset, long limitBytes, double speed) {
+        if (pcm.length < FRAME_BYTES) {
+            throw new IllegalArgumentException("Nothing to replay");
+        }
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        this.pcm = pcm;
+        this.position = (startOffset - startOffset % FRAME_BYTES) % (pcm.length - pcm.length % FRAME_BYTES);
+        this.limitBytes = limitBytes;
+        this.speed = speed;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (closed || deliveredBytes >= limitBytes) {
+            return -1;
+        }
+        int count = (int) Math.min(length, limitBytes - deliveredBytes);
+        count -= count % FRAME_BYTES;
+        if (count == 0) {
+            return -1;
+        }
+
+        long now = System.nanoTime();
+        if (startNanos < 0) {
+            startNanos = now;
+        }
+        long dueNanos = startNanos
+                + (long) ((deliveredBytes + count) * 1e9 / Transcriber.BYTES_PER_SECOND / speed);
+        while (now < dueNanos && !closed) {
+            LockSupport.parkNanos(dueNanos - now);
+            now = System.nanoTime();
+        }
+
+        int usable = pcm.length - pcm.length % FRAME_BYTES;
+        int copied = 0;
+        while (copied < count) {
+            int run = Math.min(count - copied, usable - position);
+            System.arraycopy(pcm, position, buffer, offset + copied, run);
+            copied += run;
+            position = (position + run) % usable;
+        }
+        deliveredBytes += count;
+        return count;
+    }
+
+    public long getDeliveredBytes() {
+        return deliveredBytes;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
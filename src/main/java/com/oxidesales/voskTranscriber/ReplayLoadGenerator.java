@@ -0,0 +1,292 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.Model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Finds how many live streams one machine sustains. Each simulated microphone replays the
+// same PCM from its own offset at real-time (or faster) pace, through a MicrophoneCapture and
+// MicrophoneStreamProcessor exactly like the microphone path, so no sound hardware is needed.
+// The stream count goes up step by step until a stream decodes slower than its audio
+// arrives or builds a backlog. Latencies count backlog in audio time, at speeds above 1 they overstate
+// the wall-clock wait by that factor.
+public class ReplayLoadGenerator implements AutoCloseable {
+
+    // Backlog a stream may build before it drops audio, also bounds the drain after a step
+    public static final double STREAM_BUFFER_SECONDS = 10.0;
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 100;
+
+    private final RecognizerPool recognizerPool;
+
+    private final byte[] pcm;
+
+    private ChunkProfile chunkProfile = ChunkProfile.BALANCED;
+
+    private int partialIntervalMillis = -1;
+
+    private double speed = 1.0;
+
+    private double stepSeconds = 30.0;
+
+    // Every stream gets its own controller, null runs them at full quality
+    private OverloadConfig overloadConfig;
+
+    private RecognizerPool fallbackPool;
+
+    public ReplayLoadGenerator(Model voskModel, int maxStreams, byte[] pcm) {
+        if (pcm.length < Transcriber.BYTES_PER_SECOND) {
+            throw new IllegalArgumentException("Load test needs at least one second of audio");
+        }
+        this.recognizerPool = new RecognizerPool(voskModel, maxStreams);
+        this.pcm = pcm;
+    }
+
+    // All files as one clip of 16 kHz mono 16-bit PCM
+    public static byte[] loadPcm(List<String> audioFilePaths) throws IOException {
+        ByteArrayOutputStream clip = new ByteArrayOutputStream();
+        for (String audioFilePath : audioFilePaths) {
+            try (InputStream pcmStream = AudioFileTranscriber.openPcmStream(audioFilePath)) {
+                pcmStream.transferTo(clip);
+            }
+        }
+        return clip.toByteArray();
+    }
+
+    public void setChunkProfile(ChunkProfile chunkProfile) {
+        this.chunkProfile = chunkProfile;
+    }
+
+    public void setPartialIntervalMillis(int partialIntervalMillis) {
+        this.partialIntervalMillis = partialIntervalMillis;
+    }
+
+    // 2 delivers two seconds of audio per second to every stream
+    public void setSpeed(double speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    // A null fallback model leaves that step out of the ladder
+    public void setOverloadControl(OverloadConfig overloadConfig, Model fallbackModel) {
+        if (fallbackModel != null) {
+            this.overloadConfig = overloadConfig;
+            this.fallbackPool = new RecognizerPool(fallbackModel, recognizerPool.getMaxPerKey());
+        } else {
+            this.overloadConfig = overloadConfig.without(DegradationStep.FALLBACK_MODEL);
+        }
+    }
+
+    // Wall-clock time each step replays for
+    public void setStepSeconds(double stepSeconds) {
+        this.stepSeconds = stepSeconds;
+    }
+
+    // Runs start, start + step, ... streams up to max and stops after the first step that is
+    // not sustainable
+    public List<LoadStepResult> ramp(int start, int step, int max) throws IOException {
+        List<LoadStepResult> results = new ArrayList<>();
+        LoadStepResult lastSustainable = null;
+
+        for (int streams = start; streams <= max; streams += Math.max(1, step)) {
+            LoadStepResult result = runStep(streams);
+            results.add(result);
+            System.out.println((result.isSustainable() ? "✅ " : "⚠️  ") + result);
+
+            if (!result.isSustainable()) {
+                System.out.printf("⚠️  Streams stop keeping up at %d streams (max RTF %.2f, backlog %.1f s)%n",
+                        streams, result.getMaxRealTimeFactor(), result.getMaxBacklogSeconds());
+                break;
+            }
+            lastSustainable = result;
+        }
+
+        if (lastSustainable != null) {
+            System.out.println("📈 Sustained " + lastSustainable.getStreams() + " live streams");
+        } else {
+            System.out.println("📈 Not even " + start + " streams keep up in real time");
+        }
+        return results;
+    }
+
+    public LoadStepResult runStep(int streams) throws IOException {
+        if (streams < 1 || streams > recognizerPool.getMaxPerKey()) {
+            throw new IllegalArgumentException("Stream count must be between 1 and "
+                    + recognizerPool.getMaxPerKey() + ": " + streams);
+        }
+        long limitBytes = (long) (stepSeconds * speed * Transcriber.BYTES_PER_SECOND);
+        List<ReplayStream> replayStreams = new ArrayList<>(streams);
+        try {
+            for (int i = 0; i < streams; i++) {
+                // Spread over the clip so streams do not speak in unison
+                int offset = (int) ((long) pcm.length * i / streams);
+                replayStreams.add(new ReplayStream(i, new ReplayAudioSource(pcm, offset, limitBytes, speed)));
+            }
+
+            int maxBacklogBytes = 0;
+            for (ReplayStream replayStream : replayStreams) {
+                replayStream.start();
+            }
+            while (anyCapturing(replayStreams)) {
+                for (ReplayStream replayStream : replayStreams) {
+                    maxBacklogBytes = Math.max(maxBacklogBytes, replayStream.capture.getRingBuffer().fillLevel());
+                }
+                sleep(SAMPLE_INTERVAL_MILLIS);
+            }
+            for (ReplayStream replayStream : replayStreams) {
+                replayStream.awaitDrained();
+            }
+
+            LatencyHistogram finalLatency = new LatencyHistogram();
+            double rtfSum = 0;
+            double rtfMax = 0;
+            double worstP99Millis = 0;
+            long droppedBytes = 0;
+            int degradedStreams = 0;
+            for (ReplayStream replayStream : replayStreams) {
+                OverloadController overloadController = replayStream.processor.getOverloadController();
+                if (overloadController != null && overloadController.getDegradations() > 0) {
+                    degradedStreams++;
+                }
+                double rtf = replayStream.getRealTimeFactor();
+                rtfSum += rtf;
+                rtfMax = Math.max(rtfMax, rtf);
+                worstP99Millis = Math.max(worstP99Millis, replayStream.finalLatency.getPercentile(99) / 1000.0);
+                droppedBytes += replayStream.capture.getRingBuffer().getDroppedBytes();
+                finalLatency.add(replayStream.finalLatency);
+            }
+            return new LoadStepResult(streams, rtfSum / streams, rtfMax, finalLatency, worstP99Millis,
+                    maxBacklogBytes / (double) Transcriber.BYTES_PER_SECOND, droppedBytes, degradedStreams);
+
+        } finally {
+            for (ReplayStream replayStream : replayStreams) {
+                replayStream.close();
+            }
+        }
+    }
+
+    private static boolean anyCapturing(List<ReplayStream> replayStreams) {
+        for (ReplayStream replayStream : replayStreams) {
+            if (!replayStream.capture.getRingBuffer().isClosed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Load test interrupted", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        recognizerPool.close();
+        if (fallbackPool != null) {
+            fallbackPool.close();
+        }
+    }
+
+    // One simulated microphone: replay source, capture thread, decode thread
+    private class ReplayStream implements AutoCloseable {
+
+        private final int index;
+
+        private final ReplayAudioSource source;
+
+        private final PooledRecognizer pooled;
+
+        private final LatencyHistogram finalLatency = new LatencyHistogram();
+
+        private final AtomicBoolean recording = new AtomicBoolean(true);
+
+        private MicrophoneCapture capture;
+
+        private MicrophoneStreamProcessor processor;
+
+        private Thread decodeThread;
+
+        private ReplayStream(int index, ReplayAudioSource source) throws IOException {
+            this.index = index;
+            this.source = source;
+            this.pooled = recognizerPool.borrow(RecognizerKey.dictation());
+        }
+
+        private void start() {
+            // Same result path as live transcription, just without the console
+            TranscriptionRecognizerResultHandler handler = new TranscriptionRecognizerResultHandler();
+            handler.setConsoleOutput(false);
+
+            capture = MicrophoneCapture.start(source, chunkProfile.getChunkBytes(),
+                    AudioRingBuffer.forSeconds(STREAM_BUFFER_SECONDS, OverflowPolicy.DROP_OLDEST));
+            processor = new MicrophoneStreamProcessor(pooled.getRecognizer(), handler, source,
+                    recording, capture.getRingBuffer());
+            processor.setChunkProfile(chunkProfile);
+            processor.setPartialIntervalMillis(partialIntervalMillis);
+            processor.setFinalLatencyHistogram(finalLatency);
+            if (overloadConfig != null) {
+                processor.setOverloadController(new OverloadController("Stream " + index, overloadConfig),
+                        fallbackPool);
+            }
+
+            decodeThread = new Thread(processor::decodeAudioStream, "replay-decode-" + index);
+            decodeThread.setDaemon(true);
+            decodeThread.start();
+        }
+
+        private void awaitDrained() throws IOException {
+            try {
+                decodeThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Load test interrupted", e);
+            }
+        }
+
+        // Decode time per second of arriving audio, above 1 the stream falls behind
+        private double getRealTimeFactor() {
+            long decodedBytes = processor.getDecodedBytes();
+            if (decodedBytes == 0) {
+                return 0;
+            }
+            double audioNanos = decodedBytes * (double) TimeUnit.SECONDS.toNanos(1) / Transcriber.BYTES_PER_SECOND;
+            return processor.getDecodeNanos() / audioNanos * speed;
+        }
+
+        // The recognizer goes back to the pool only once the decode thread has let go of it,
+        // stopping drops the backlog so that is at most one chunk away
+        @Override
+        public void close() {
+            recording.set(false);
+            if (capture != null) {
+                capture.stop();
+            }
+            if (decodeThread != null) {
+                boolean interrupted = false;
+                while (decodeThread.isAlive()) {
+                    try {
+                        decodeThread.join();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            pooled.close();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.oxidesales.voskTranscriber;
+
+public class SegmentationAccuracy {
+
+    // Word error rate of the segmented text, taking the serial text as reference
+    private final double wordErrorRate;
+
+    private final int segmentCount;
+
+    private final long serialMillis;
+
+    private final long segmentedMillis;
+
+    public SegmentationAccuracy(double wordErrorRate, int segmentCount, long serialMillis, long segmentedMillis) {
+        this.wordErrorRate = wordErrorRate;
+        this.segmentCount = segmentCount;
+        this.serialMillis = serialMillis;
+        this.segmentedMillis = segmentedMillis;
+    }
+
+    public double getWordErrorRate() {
+        return wordErrorRate;
+    }
+
+    public boolean isWithin(double maxWordErrorRate) {
+        return wordErrorRate <= maxWordErrorRate;
+    }
+
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    public long getSerialMillis() {
+        return serialMillis;
+    }
+
+    public long getSegmentedMillis() {
+        return segmentedMillis;
+    }
+
+    public double getSpeedup() {
+        return segmentedMillis > 0 ? serialMillis / (double) segmentedMillis : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WER %.2f%% over %d segments, %d ms serial vs %d ms segmented (%.1fx)",
+                wordErrorRate * 100, segmentCount, serialMillis, segmentedMillis, getSpeedup());
+    }
+}
@@ -0,0 +1,46 @@
+package com.oxidesales.voskTranscriber;
+
+public class SegmentationConfig {
+
+    // Preferred segment length, a cut is searched from here on
+    private final double targetSeconds;
+
+    // Hard limit, the quietest frame before it is used when no silence was found
+    private final double maxSeconds;
+
+    // Shortest pause that counts as a safe cut point
+    private final int minSilenceMillis;
+
+    // RMS level (16-bit sample units) below which a frame is silent
+    private final double silenceThreshold;
+
+    public SegmentationConfig(double targetSeconds, double maxSeconds, int minSilenceMillis, double silenceThreshold) {
+        if (targetSeconds <= 0 || maxSeconds < targetSeconds) {
+            throw new IllegalArgumentException("Segment length must be positive and below the maximum");
+        }
+        this.targetSeconds = targetSeconds;
+        this.maxSeconds = maxSeconds;
+        this.minSilenceMillis = minSilenceMillis;
+        this.silenceThreshold = silenceThreshold;
+    }
+
+    public static SegmentationConfig defaults() {
+        return new SegmentationConfig(60, 90, 400, 300);
+    }
+
+    public double getTargetSeconds() {
+        return targetSeconds;
+    }
+
+    public double getMaxSeconds() {
+        return maxSeconds;
+    }
+
+    public int getMinSilenceMillis() {
+        return minSilenceMillis;
+    }
+
+    public double getSilenceThreshold() {
+        return silenceThreshold;
+    }
+}
@@ -0,0 +1,179 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.Recognizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Decodes one long recording as several segments in parallel. Segments are cut in
+// pauses, decoded on separate pooled recognizers and joined in source order.
+public class SegmentedFileTranscriber {
+
+    private final RecognizerPool recognizerPool;
+
+    private final int workers;
+
+    private final SegmentationConfig config;
+
+    public SegmentedFileTranscriber(RecognizerPool recognizerPool, int workers, SegmentationConfig config) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1");
+        }
+        this.recognizerPool = recognizerPool;
+        this.workers = workers;
+        this.config = config;
+    }
+
+    public SegmentedTranscription transcribe(String audioFilePath) throws IOException {
+        long startedAt = System.nanoTime();
+
+        // Spool the converted PCM to disk once, measuring frame energy on the way
+        Path spool = Files.createTempFile("vosk-segments-", ".pcm");
+        try {
+            SilenceSplitter splitter = new SilenceSplitter(config);
+            spoolPcm(audioFilePath, spool, splitter);
+            long[] cuts = splitter.findCutPoints();
+
+            try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.READ)) {
+                List<TimedUtterance> utterances = decodeSegments(channel, cuts);
+                long decodeMillis = (System.nanoTime() - startedAt) / 1_000_000;
+                return new SegmentedTranscription(utterances, splitter.getTotalBytes(), cuts.length - 1, decodeMillis);
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private void spoolPcm(String audioFilePath, Path spool, SilenceSplitter splitter) throws IOException {
+        try (InputStream pcm = AudioFileTranscriber.openPcmStream(audioFilePath);
+             FileChannel out = FileChannel.open(spool, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[64 * 1024];
+            int bytesRead;
+            while ((bytesRead = pcm.read(buffer)) != -1) {
+                splitter.accept(buffer, bytesRead);
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, bytesRead);
+                while (chunk.hasRemaining()) {
+                    out.write(chunk);
+                }
+            }
+        }
+    }
+
+    private List<TimedUtterance> decodeSegments(FileChannel channel, long[] cuts) throws IOException {
+        int segments = cuts.length - 1;
+        ExecutorService executorService = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, segments)));
+        try {
+            List<Future<List<TimedUtterance>>> futures = new ArrayList<>(segments);
+            for (int i = 0; i < segments; i++) {
+                long start = cuts[i];
+                long end = cuts[i + 1];
+                futures.add(executorService.submit(() -> decodeSegment(channel, start, end)));
+            }
+
+            List<TimedUtterance> utterances = new ArrayList<>();
+            for (Future<List<TimedUtterance>> future : futures) {
+                utterances.addAll(future.get());
+            }
+            return utterances;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Segmented transcription interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Segment decoding failed", cause);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private List<TimedUtterance> decodeSegment(FileChannel channel, long start, long end) throws IOException {
+        double offsetSeconds = start / (double) Transcriber.BYTES_PER_SECOND;
+        List<TimedUtterance> utterances = new ArrayList<>();
+        VoskResultDecoder resultDecoder = new VoskResultDecoder();
+
+        try (PooledRecognizer pooled = recognizerPool.borrowFresh(RecognizerKey.dictation())) {
+            Recognizer recognizer = pooled.getRecognizer();
+            // Word times are needed to place each utterance in the source file
+            recognizer.setWords(true);
+            try {
+                byte[] buffer = new byte[Transcriber.CHUNK_SIZE];
+                ByteBuffer chunk = ByteBuffer.wrap(buffer);
+                long position = start;
+
+                while (position < end) {
+                    chunk.clear();
+                    chunk.limit((int) Math.min(buffer.length, end - position));
+                    // Positional reads, the channel is shared by all segment tasks
+                    int bytesRead = channel.read(chunk, position);
+                    if (bytesRead <= 0) {
+                        break;
+                    }
+                    position += bytesRead;
+
+                    long acceptStart = System.nanoTime();
+                    boolean isFinal = recognizer.acceptWaveForm(buffer, bytesRead);
+                    TranscriberMetrics.global().recordChunk(bytesRead, System.nanoTime() - acceptStart);
+
+                    if (isFinal) {
+                        addUtterance(utterances, resultDecoder, recognizer.getResult(), offsetSeconds);
+                    }
+                }
+                addUtterance(utterances, resultDecoder, recognizer.getFinalResult(), offsetSeconds);
+            } finally {
+                recognizer.setWords(false);
+            }
+        }
+        return utterances;
+    }
+
+    static void addUtterance(List<TimedUtterance> utterances, VoskResultDecoder resultDecoder,
+                             String result, double offsetSeconds) throws IOException {
+        resultDecoder.decode(result);
+        if (resultDecoder.isTextEmpty()) {
+            return;
+        }
+
+        List<TimedWord> words = new ArrayList<>(resultDecoder.wordCount());
+        for (int i = 0; i < resultDecoder.wordCount(); i++) {
+            words.add(new TimedWord(
+                    resultDecoder.word(i),
+                    offsetSeconds + resultDecoder.wordStart(i),
+                    offsetSeconds + resultDecoder.wordEnd(i),
+                    resultDecoder.wordConfidence(i)
+            ));
+        }
+
+        double utteranceStart = words.isEmpty() ? offsetSeconds : words.get(0).getStart();
+        double utteranceEnd = words.isEmpty() ? offsetSeconds : words.get(words.size() - 1).getEnd();
+        utterances.add(new TimedUtterance(utteranceStart, utteranceEnd, resultDecoder.textString(), words));
+    }
+
+    // Decodes the file both ways and reports how far the segmented text drifts from the
+    // serial one, used to tune SegmentationConfig before turning the parallel mode on
+    public SegmentationAccuracy compareWithSerial(String audioFilePath, AudioFileTranscriber serialTranscriber)
+            throws IOException {
+        long serialStartedAt = System.nanoTime();
+        String serialText = serialTranscriber.transcribeFile(audioFilePath);
+        long serialMillis = (System.nanoTime() - serialStartedAt) / 1_000_000;
+
+        SegmentedTranscription segmented = transcribe(audioFilePath);
+        double wordErrorRate = WordErrorRate.compute(serialText, segmented.getText());
+        return new SegmentationAccuracy(wordErrorRate, segmented.getSegmentCount(), serialMillis,
+                segmented.getDecodeMillis());
+    }
+}
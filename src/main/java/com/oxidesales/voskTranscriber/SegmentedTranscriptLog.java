@@ -0,0 +1,295 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Append-only transcript on disk, one record per final utterance:
+//   int length | int crc32c | long timestamp millis | length bytes of UTF-8 text
+// Records go to the OS on every append; fsync is batched by count and by a timer, so a crash
+// loses at most the last sync interval. Segments roll at a size limit and are synced when
+// they are closed. Opening an existing directory replays it and cuts a torn last record off.
+public class SegmentedTranscriptLog implements TranscriptSink {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("transcript-(\\d{8})\\.log");
+
+    private static final int HEADER_BYTES = 16;
+
+    // Anything longer is treated as a corrupt length field rather than allocated
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final Path directory;
+
+    private final TranscriptLogConfig config;
+
+    // Recent utterances for getRecentTranscription, everything else stays on disk
+    private final MemoryTranscriptSink window;
+
+    private final ScheduledExecutorService syncScheduler;
+
+    private final List<Path> segments = new ArrayList<>();
+
+    private FileChannel segment;
+
+    private long segmentIndex;
+
+    private long segmentSize;
+
+    private int unsyncedRecords;
+
+    private long recoveredRecords;
+
+    private long truncatedBytes;
+
+    private boolean closed;
+
+    private SegmentedTranscriptLog(Path directory, TranscriptLogConfig config) {
+        this.directory = directory;
+        this.config = config;
+        this.window = new MemoryTranscriptSink(config.getWindowChars());
+        this.syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transcript-log-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static SegmentedTranscriptLog open(Path directory) throws IOException {
+        return open(directory, TranscriptLogConfig.defaults());
+    }
+
+    public static SegmentedTranscriptLog open(Path directory, TranscriptLogConfig config) throws IOException {
+        Files.createDirectories(directory);
+        SegmentedTranscriptLog log = new SegmentedTranscriptLog(directory, config);
+        log.recover();
+        long interval = config.getSyncIntervalMillis();
+        log.syncScheduler.scheduleWithFixedDelay(log::syncQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        return log;
+    }
+
+    private void recover() throws IOException {
+        List<Long> indexes = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    indexes.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        indexes.sort(null);
+
+        for (long index : indexes) {
+            Path file = segmentPath(index);
+            segments.add(file);
+            long valid = scan(file, Long.MAX_VALUE, text -> {
+                window.append(text);
+                recoveredRecords++;
+            });
+
+            long size = Files.size(file);
+            if (valid < size && index == indexes.get(indexes.size() - 1)) {
+                // A record the crash cut short, everything before it is intact
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                    channel.force(true);
+                }
+                truncatedBytes += size - valid;
+            }
+        }
+
+        if (indexes.isEmpty()) {
+            startSegment(1);
+        } else {
+            segmentIndex = indexes.get(indexes.size() - 1);
+            segment = FileChannel.open(segmentPath(segmentIndex), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segmentSize = segment.size();
+        }
+
+        if (recoveredRecords > 0 || truncatedBytes > 0) {
+            System.out.printf("🗂️  Transcript log %s: recovered %d utterances from %d segments, %d torn bytes dropped%n",
+                    directory, recoveredRecords, segments.size(), truncatedBytes);
+        }
+    }
+
+    @Override
+    public synchronized void append(String utterance) throws IOException {
+        if (closed) {
+            throw new IOException("Transcript log is closed: " + directory);
+        }
+        byte[] text = utterance.getBytes(StandardCharsets.UTF_8);
+        if (text.length > MAX_RECORD_BYTES) {
+            throw new IOException("Utterance too long for the transcript log: " + text.length + " bytes");
+        }
+        if (segmentSize > 0 && segmentSize + HEADER_BYTES + text.length > config.getSegmentBytes()) {
+            rollSegment();
+        }
+
+        long timestamp = System.currentTimeMillis();
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + text.length);
+        record.putInt(text.length).putInt(checksum(timestamp, text)).putLong(timestamp).put(text).flip();
+        while (record.hasRemaining()) {
+            segment.write(record);
+        }
+        segmentSize += record.limit();
+        window.append(utterance);
+
+        if (++unsyncedRecords >= config.getSyncEveryRecords()) {
+            sync();
+        }
+    }
+
+    private void rollSegment() throws IOException {
+        sync();
+        segment.close();
+        startSegment(segmentIndex + 1);
+    }
+
+    private void startSegment(long index) throws IOException {
+        segmentIndex = index;
+        Path file = segmentPath(index);
+        segment = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentSize = 0;
+        segments.add(file);
+        syncDirectory();
+    }
+
+    // The new file's directory entry has to be durable too, or a crash can lose the whole segment
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform, the data itself is still synced
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (!closed) {
+            sync();
+        }
+    }
+
+    private void sync() throws IOException {
+        if (unsyncedRecords > 0) {
+            segment.force(false);
+            unsyncedRecords = 0;
+        }
+    }
+
+    private synchronized void syncQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            System.err.println("❌ Transcript log sync failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getRecentTranscription() {
+        return window.getRecentTranscription();
+    }
+
+    // Streams from disk. Appends carry on meanwhile, they show up in the next call.
+    @Override
+    public void writeTo(Appendable out) throws IOException {
+        List<Path> files;
+        long lastLength;
+        synchronized (this) {
+            files = new ArrayList<>(segments);
+            lastLength = segmentSize;
+        }
+
+        for (int i = 0; i < files.size(); i++) {
+            long limit = i == files.size() - 1 ? lastLength : Long.MAX_VALUE;
+            scan(files.get(i), limit, text -> out.append(text).append(' '));
+        }
+    }
+
+    private interface RecordVisitor {
+        void visit(String text) throws IOException;
+    }
+
+    // Reads records up to limit bytes and returns the length of the intact prefix
+    private static long scan(Path file, long limit, RecordVisitor visitor) throws IOException {
+        long valid = 0;
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024))) {
+            while (valid + HEADER_BYTES <= limit) {
+                try {
+                    int length = in.readInt();
+                    int crc = in.readInt();
+                    long timestamp = in.readLong();
+                    if (length < 0 || length > MAX_RECORD_BYTES || valid + HEADER_BYTES + length > limit) {
+                        break;
+                    }
+                    byte[] text = new byte[length];
+                    in.readFully(text);
+                    if (checksum(timestamp, text) != crc) {
+                        break;
+                    }
+                    visitor.visit(new String(text, StandardCharsets.UTF_8));
+                    valid += HEADER_BYTES + length;
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        return valid;
+    }
+
+    private static int checksum(long timestamp, byte[] text) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(8).putLong(timestamp).flip());
+        crc.update(text);
+        return (int) crc.getValue();
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("transcript-%08d.log", index));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public long getRecoveredRecords() {
+        return recoveredRecords;
+    }
+
+    public long getTruncatedBytes() {
+        return truncatedBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        syncScheduler.shutdownNow();
+        sync();
+        segment.close();
+        closed = true;
+    }
+}
@@ -0,0 +1,46 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.List;
+
+public class SegmentedTranscription {
+
+    private final List<TimedUtterance> utterances;
+
+    private final long audioBytes;
+
+    private final int segmentCount;
+
+    private final long decodeMillis;
+
+    public SegmentedTranscription(List<TimedUtterance> utterances, long audioBytes, int segmentCount, long decodeMillis) {
+        this.utterances = utterances;
+        this.audioBytes = audioBytes;
+        this.segmentCount = segmentCount;
+        this.decodeMillis = decodeMillis;
+    }
+
+    // Utterances of all segments in source order, timestamps relative to the whole file
+    public List<TimedUtterance> getUtterances() {
+        return utterances;
+    }
+
+    public String getText() {
+        StringBuilder text = new StringBuilder();
+        for (TimedUtterance utterance : utterances) {
+            text.append(utterance.getText()).append(" ");
+        }
+        return text.toString().trim();
+    }
+
+    public double getAudioSeconds() {
+        return audioBytes / (double) Transcriber.BYTES_PER_SECOND;
+    }
+
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    public long getDecodeMillis() {
+        return decodeMillis;
+    }
+}
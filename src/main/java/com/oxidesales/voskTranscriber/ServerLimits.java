@@ -0,0 +1,50 @@
+package com.oxidesales.voskTranscriber;
+
+public class ServerLimits {
+
+    private final int maxSessions;
+
+    // Audio one session may send before it is cut off
+    private final double maxSessionAudioSeconds;
+
+    // Wall time one session may stay connected
+    private final long maxSessionMillis;
+
+    // How long a new session waits for a free recognizer before it is turned away
+    private final long recognizerWaitMillis;
+
+    public ServerLimits(int maxSessions, double maxSessionAudioSeconds, long maxSessionMillis,
+                        long recognizerWaitMillis) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Server must allow at least one session");
+        }
+        this.maxSessions = maxSessions;
+        this.maxSessionAudioSeconds = maxSessionAudioSeconds;
+        this.maxSessionMillis = maxSessionMillis;
+        this.recognizerWaitMillis = recognizerWaitMillis;
+    }
+
+    public static ServerLimits defaults() {
+        return new ServerLimits(64, 4 * 3600, 5 * 3600 * 1000L, 2000);
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public double getMaxSessionAudioSeconds() {
+        return maxSessionAudioSeconds;
+    }
+
+    public long getMaxSessionAudioBytes() {
+        return (long) (maxSessionAudioSeconds * Transcriber.BYTES_PER_SECOND);
+    }
+
+    public long getMaxSessionMillis() {
+        return maxSessionMillis;
+    }
+
+    public long getRecognizerWaitMillis() {
+        return recognizerWaitMillis;
+    }
+}
@@ -0,0 +1,28 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+
+// Decodes one server session's audio; ByteCountSessionDecoder stands in for the Vosk one so
+// the server and client can be exercised over loopback without a model
+public interface SessionDecoder extends AutoCloseable {
+
+    interface ResultSink {
+        // Decoders skip partial work entirely for a sink that does not want them
+        default boolean wantsPartials() {
+            return true;
+        }
+
+        void onPartial(String text) throws IOException;
+
+        void onFinal(String text) throws IOException;
+    }
+
+    void accept(byte[] audioData, int length, ResultSink sink) throws IOException;
+
+    // End of the audio stream, flushes the last utterance
+    void finish(ResultSink sink) throws IOException;
+
+    // Frees native resources, called exactly once per session
+    @Override
+    void close();
+}
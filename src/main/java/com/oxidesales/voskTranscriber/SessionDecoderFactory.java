@@ -0,0 +1,7 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+
+public interface SessionDecoderFactory {
+    SessionDecoder open() throws IOException;
+}
@@ -0,0 +1,125 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.Arrays;
+
+// Measures frame energy while audio streams past, then picks cut points in pauses so
+// a long recording can be decoded as independent segments.
+public class SilenceSplitter {
+
+    private static final int FRAME_MILLIS = 20;
+
+    private static final int FRAME_BYTES = Transcriber.BYTES_PER_SECOND * FRAME_MILLIS / 1000;
+
+    private final SegmentationConfig config;
+
+    private float[] frameRms = new float[1024];
+    private int frameCount;
+
+    private long sumOfSquares;
+    private int samplesInFrame;
+    private long totalBytes;
+
+    public SilenceSplitter(SegmentationConfig config) {
+        this.config = config;
+    }
+
+    // 16-bit little-endian mono PCM, chunks are expected to hold whole samples
+    public void accept(byte[] data, int length) {
+        int samplesPerFrame = FRAME_BYTES / 2;
+        for (int i = 0; i + 1 < length; i += 2) {
+            int sample = (short) ((data[i] & 0xff) | (data[i + 1] << 8));
+            sumOfSquares += (long) sample * sample;
+            if (++samplesInFrame == samplesPerFrame) {
+                addFrame();
+            }
+        }
+        totalBytes += length;
+    }
+
+    private void addFrame() {
+        if (frameCount == frameRms.length) {
+            frameRms = Arrays.copyOf(frameRms, frameCount * 2);
+        }
+        frameRms[frameCount++] = (float) Math.sqrt(sumOfSquares / (double) samplesInFrame);
+        sumOfSquares = 0;
+        samplesInFrame = 0;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    // Byte offsets of the segment boundaries, starting with 0 and ending with the total length
+    public long[] findCutPoints() {
+        int framesPerSecond = 1000 / FRAME_MILLIS;
+        int targetFrames = (int) (config.getTargetSeconds() * framesPerSecond);
+        int maxFrames = (int) (config.getMaxSeconds() * framesPerSecond);
+        int minSilentFrames = Math.max(1, config.getMinSilenceMillis() / FRAME_MILLIS);
+
+        long[] cuts = new long[16];
+        int cutCount = 0;
+        cuts[cutCount++] = 0;
+
+        int segmentStart = 0;
+        while (frameCount - segmentStart > maxFrames) {
+            int from = segmentStart + targetFrames;
+            int to = segmentStart + maxFrames;
+
+            int cut = findPause(from, to, minSilentFrames);
+            if (cut < 0) {
+                // No real pause, the quietest frame is the least harmful place to cut
+                cut = quietestFrame(from, to);
+            }
+
+            if (cutCount == cuts.length) {
+                cuts = Arrays.copyOf(cuts, cutCount * 2);
+            }
+            cuts[cutCount++] = (long) cut * FRAME_BYTES;
+            segmentStart = cut;
+        }
+
+        if (cutCount == cuts.length) {
+            cuts = Arrays.copyOf(cuts, cutCount + 1);
+        }
+        cuts[cutCount++] = totalBytes;
+        return Arrays.copyOf(cuts, cutCount);
+    }
+
+    // Middle of the first run of silent frames starting in [from, to), -1 if there is none.
+    // A run reaching past to is cut at to, so segments stay within their maximum length.
+    private int findPause(int from, int to, int minSilentFrames) {
+        double threshold = config.getSilenceThreshold();
+        int runStart = -1;
+
+        for (int frame = from; frame < frameCount; frame++) {
+            if (frameRms[frame] < threshold) {
+                if (runStart < 0) {
+                    if (frame >= to) {
+                        break;
+                    }
+                    runStart = frame;
+                }
+            } else if (runStart >= 0) {
+                if (frame - runStart >= minSilentFrames) {
+                    return Math.min((runStart + frame) / 2, to);
+                }
+                runStart = -1;
+            }
+        }
+
+        if (runStart >= 0 && frameCount - runStart >= minSilentFrames) {
+            return Math.min((runStart + frameCount) / 2, to);
+        }
+        return -1;
+    }
+
+    private int quietestFrame(int from, int to) {
+        int quietest = from;
+        for (int frame = from; frame < Math.min(to, frameCount); frame++) {
+            if (frameRms[frame] < frameRms[quietest]) {
+                quietest = frame;
+            }
+        }
+        return quietest;
+    }
+}
@@ -0,0 +1,46 @@
+package com.oxidesales.voskTranscriber;
+
+// An utterance from one channel of a multi-channel recording
+public class SpeakerUtterance {
+
+    private final int channel;
+
+    private final String speaker;
+
+    private final TimedUtterance utterance;
+
+    public SpeakerUtterance(int channel, String speaker, TimedUtterance utterance) {
+        this.channel = channel;
+        this.speaker = speaker;
+        this.utterance = utterance;
+    }
+
+    public int getChannel() {
+        return channel;
+    }
+
+    public String getSpeaker() {
+        return speaker;
+    }
+
+    public TimedUtterance getUtterance() {
+        return utterance;
+    }
+
+    public double getStart() {
+        return utterance.getStart();
+    }
+
+    public double getEnd() {
+        return utterance.getEnd();
+    }
+
+    public String getText() {
+        return utterance.getText();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%.2f-%.2f] %s: %s", getStart(), getEnd(), speaker, getText());
+    }
+}
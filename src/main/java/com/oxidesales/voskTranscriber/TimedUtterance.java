@@ -0,0 +1,43 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.List;
+
+// One final result with its position in the source audio
+public class TimedUtterance {
+
+    private final double start;
+
+    private final double end;
+
+    private final String text;
+
+    private final List<TimedWord> words;
+
+    public TimedUtterance(double start, double end, String text, List<TimedWord> words) {
+        this.start = start;
+        this.end = end;
+        this.text = text;
+        this.words = words;
+    }
+
+    public double getStart() {
+        return start;
+    }
+
+    public double getEnd() {
+        return end;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public List<TimedWord> getWords() {
+        return words;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%.2f-%.2f] %s", start, end, text);
+    }
+}
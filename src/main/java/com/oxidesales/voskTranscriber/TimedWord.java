@@ -0,0 +1,41 @@
+package com.oxidesales.voskTranscriber;
+
+public class TimedWord {
+
+    private final String word;
+
+    // Seconds from the start of the source audio
+    private final double start;
+
+    private final double end;
+
+    private final double confidence;
+
+    public TimedWord(String word, double start, double end, double confidence) {
+        this.word = word;
+        this.start = start;
+        this.end = end;
+        this.confidence = confidence;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public double getStart() {
+        return start;
+    }
+
+    public double getEnd() {
+        return end;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [%.2f-%.2f, %.2f]", word, start, end, confidence);
+    }
+}
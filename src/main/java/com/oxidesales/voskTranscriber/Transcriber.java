@@ -7,13 +7,24 @@ import org.vosk.Recognizer;
 
 import javax.sound.sampled.*;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleUnaryOperator;
 
 public class Transcriber {
     public static final int SAMPLE_RATE = 16000;
@@ -21,21 +32,83 @@ public class Transcriber {
     public static final int CHANNELS = 1;
     public static final int CHUNK_SIZE = 4096;
     public static final boolean BIG_ENDIAN = false;
+    public static final int BYTES_PER_SECOND = SAMPLE_RATE * (SAMPLE_SIZE_BITS / 8) * CHANNELS;
 
     // Processing configuration
     public static final int BUFFER_SIZE = 4096;
 
-    // Vosk components
+    // Synthetic audio decoded once after loading, long enough to touch most of the model
+    public static final double WARM_UP_SECONDS = 1.0;
+
+    // Capture buffer while the model loads in the background, the 1.8 GB models need ~10 s
+    public static final double STARTUP_BUFFER_SECONDS = 30;
+
+    // Vosk components, the model is shared through the ModelRegistry
+    private final ModelHandle modelHandle;
     private final Model voskModel;
     private final Recognizer recognizer;
 
     // Audio components
-    private TargetDataLine microphone;
     private final AtomicBoolean isRecording = new AtomicBoolean(false);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    // A stream that ended and Ctrl+C may both stop the session, only the first one does
+    private final AtomicBoolean stopRequested = new AtomicBoolean(false);
+
     private final ExecutorService executorService;
 
+    // The decode task feeding recognizer, nothing else may touch the recognizer while it runs
+    private volatile Future<?> decodeTask;
+
+    // Stopping drops the backlog, so this only covers the chunk being decoded
+    private static final long DECODE_STOP_TIMEOUT_SECONDS = 10;
+
+    private final RecognizerPool recognizerPool;
+
+    // Grammar recognizers are cheap, many command streams can share a core
+    public static final int COMMAND_RECOGNIZERS_PER_GRAMMAR = 64;
+    // Grammars whose recognizers stay loaded once their streams are gone
+    public static final int COMMAND_GRAMMARS_KEPT = 8;
+    private final RecognizerPool commandPool;
+
+    // Fallback recognizers for streams of this transcriber, load tests size their own pool
+    public static final int FALLBACK_RECOGNIZERS = 4;
+
+    private final AudioFileTranscriber audioFileTranscriber;
+
     private final TranscriptionRecognizerResultHandler transcriptionRecognizerResultHandler;
 
+    // Listeners get results on their own threads, never on the decode thread
+    private final TranscriptionEventDispatcher eventDispatcher = new TranscriptionEventDispatcher();
+
+    // Per-stream degradation under load, null keeps full quality
+    private OverloadConfig overloadConfig;
+    private ModelHandle fallbackModelHandle;
+    private RecognizerPool fallbackPool;
+    private OverloadController overloadController;
+
+    // Capture ring buffer between the microphone and the decode thread
+    private double captureBufferSeconds = 10;
+    private OverflowPolicy captureOverflowPolicy = OverflowPolicy.DROP_OLDEST;
+    private AudioRingBuffer captureBuffer;
+    private MicrophoneCapture capture;
+
+    // Chunking for the microphone, the adaptive target (ms) replaces the fixed chunk size when > 0
+    private ChunkProfile chunkProfile = ChunkProfile.BALANCED;
+    private double adaptiveTargetLatencyMillis;
+    private AdaptiveChunkSizer adaptiveChunkSizer;
+    private int partialIntervalMillis = -1;
+
+    // Voice activity gating in front of the recognizer, null feeds all audio
+    private VadConfig vadConfig;
+    private VoiceActivityGate realtimeGate;
+
+    // Word timings and confidences in the binary batch format, null when not wanted. The live
+    // stream's batches are source 0, every transcribed file gets the next source id.
+    private WordBatchWriter wordWriter;
+    private WordCollector wordCollector;
+    private final AtomicInteger nextWordSourceId = new AtomicInteger(1);
+
     public Transcriber(String modelPath) {
         try {
             // Set Vosk log level (optional)
@@ -48,91 +121,224 @@ public class Transcriber {
             }
 
             this.transcriptionRecognizerResultHandler = new TranscriptionRecognizerResultHandler();
+            this.transcriptionRecognizerResultHandler.setTranscriptionListener(eventDispatcher);
+
+            // Load Vosk model, or share it if this process already has it loaded
+            this.modelHandle = ModelRegistry.global().acquire(modelPath);
+            this.voskModel = modelHandle.getModel();
+            ModelMetadata modelMetadata = modelHandle.getMetadata();
 
-            // Load Vosk model
-            this.voskModel = new Model(modelPath);
             this.recognizer = new Recognizer(voskModel, SAMPLE_RATE);
+            this.recognizerPool = new RecognizerPool(voskModel, BatchTranscriber.defaultWorkers());
+            this.audioFileTranscriber = new AudioFileTranscriber(recognizerPool);
+            this.commandPool = new RecognizerPool(voskModel, COMMAND_RECOGNIZERS_PER_GRAMMAR, COMMAND_GRAMMARS_KEPT);
 
             // Initialize thread pool
             this.executorService = Executors.newFixedThreadPool(2);
-            ModelLanguageDetector languageDetector = new ModelLanguageDetector();
-            String modelLanguage = languageDetector.getModelLanguage(modelPath);
+
+            // Decode metrics are readable over JMX for the life of the process
+            TranscriberMetrics.global().registerMBean();
 
             System.out.println("🎙️  Vosk Real-time Speech Transcriber");
             System.out.println("=====================================");
             System.out.println("Model: " + modelPath);
             System.out.println("Sample Rate: " + SAMPLE_RATE + " Hz");
-            System.out.println("Language: " + modelLanguage);
+            System.out.println("Language: " + modelMetadata.getLanguage());
+            if (modelMetadata.getSampleRate() != SAMPLE_RATE) {
+                System.out.println("⚠️  Model was trained on " + modelMetadata.getSampleRate()
+                        + " Hz audio, input is resampled by Vosk");
+            }
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize Vosk transcriber", e);
         }
     }
 
-    public void startRealtime() {
-        try {
-            // Set up audio format
-            AudioFormat audioFormat = new AudioFormat(
-                    AudioFormat.Encoding.PCM_SIGNED,
-                    SAMPLE_RATE,
-                    SAMPLE_SIZE_BITS,
-                    CHANNELS,
-                    (SAMPLE_SIZE_BITS / 8) * CHANNELS,
-                    SAMPLE_RATE,
-                    BIG_ENDIAN
-            );
-
-            // Get microphone
-            DataLine.Info info = new DataLine.Info(TargetDataLine.class, audioFormat);
-
-            if (!AudioSystem.isLineSupported(info)) {
-                throw new RuntimeException("Audio format not supported by system");
+    // Loads and warms up the model on a background thread, so the microphone can be opened
+    // meanwhile instead of after a load of several seconds
+    public static CompletableFuture<Transcriber> loadInBackground(String modelPath) {
+        CompletableFuture<Transcriber> loaded = new CompletableFuture<>();
+        Thread loader = new Thread(() -> {
+            try {
+                Transcriber transcriber = new Transcriber(modelPath);
+                transcriber.warmUp();
+                loaded.complete(transcriber);
+            } catch (Throwable e) {
+                // A missing native library is an Error, the caller's join must still see it
+                loaded.completeExceptionally(e);
+            }
+        }, "model-loader");
+        loader.setDaemon(true);
+        loader.start();
+        return loaded;
+    }
+
+    // Decodes a short synthetic clip so the first real utterance does not pay for first-touch
+    // page faults in the model and the decoder's lazy setup. A throwaway recognizer does it,
+    // reset() does not rewind Vosk's sample clock and the live one would report word times
+    // shifted by the warm-up clip.
+    public void warmUp() {
+        long startTime = System.nanoTime();
+        byte[] clip = warmUpClip(WARM_UP_SECONDS);
+        byte[] chunk = new byte[CHUNK_SIZE];
+        try (Recognizer warmUpRecognizer = new Recognizer(voskModel, SAMPLE_RATE)) {
+            for (int offset = 0; offset < clip.length; offset += CHUNK_SIZE) {
+                int length = Math.min(CHUNK_SIZE, clip.length - offset);
+                System.arraycopy(clip, offset, chunk, 0, length);
+                warmUpRecognizer.acceptWaveForm(chunk, length);
             }
+            warmUpRecognizer.getFinalResult();
+        } catch (IOException e) {
+            System.err.println("⚠️  Warm-up skipped: " + e.getMessage());
+            return;
+        }
+        System.out.printf("🔥 Warm-up decode of %.1f s took %d ms%n",
+                WARM_UP_SECONDS, (System.nanoTime() - startTime) / 1_000_000);
+    }
 
-            microphone = (TargetDataLine) AudioSystem.getLine(info);
-            microphone.open(audioFormat, BUFFER_SIZE);
-            microphone.start();
+    // Voiced-sounding audio: a few harmonics of a gliding pitch, syllable-rate envelope, noise
+    private static byte[] warmUpClip(double seconds) {
+        int samples = (int) (seconds * SAMPLE_RATE);
+        byte[] pcm = new byte[samples * 2];
+        Random random = new Random(42);
+        double phase = 0;
+        for (int i = 0; i < samples; i++) {
+            double t = i / (double) SAMPLE_RATE;
+            phase += 2 * Math.PI * (120 + 30 * Math.sin(2 * Math.PI * 0.7 * t)) / SAMPLE_RATE;
+            double voice = Math.sin(phase) + 0.5 * Math.sin(2 * phase) + 0.3 * Math.sin(3 * phase);
+            double envelope = Math.max(0, Math.sin(2 * Math.PI * 4 * t));
+            int value = (int) (6000 * envelope * voice + 200 * random.nextGaussian());
+            value = Math.max(-32768, Math.min(32767, value));
+            pcm[2 * i] = (byte) value;
+            pcm[2 * i + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
 
+    public void startRealtime() {
+        MicrophoneCapture microphoneCapture;
+        try {
+            microphoneCapture = MicrophoneCapture.open(chunkProfile, captureBufferSeconds, captureOverflowPolicy);
+        } catch (Exception e) {
+            System.err.println("❌ Error starting real-time transcription: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+        startRealtime(microphoneCapture);
+    }
+
+    // Decodes from a capture that may have been running for a while, e.g. opened before the
+    // model finished loading. What it buffered meanwhile is decoded first, in catch-up mode.
+    public void startRealtime(MicrophoneCapture microphoneCapture) {
+        try {
             System.out.println("\n🎤 Microphone started. Begin speaking...");
             System.out.println("📝 Real-time transcription:");
             System.out.println("⏹️  Press Ctrl+C to stop");
             System.out.println("----------------------------------------");
 
-            isRecording.set(true);
+            startDecoding(microphoneCapture);
 
-            MicrophoneStreamProcessor microphoneStreamProcessor = new MicrophoneStreamProcessor(
-                    this.recognizer,
-                    this.transcriptionRecognizerResultHandler,
-                    microphone,
-                    isRecording
-            );
+            // Wait until stopRealtime is called
+            try {
+                stopped.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
 
-            // Start audio processing thread
-            executorService.submit(microphoneStreamProcessor::processAudioStream);
+        } catch (Exception e) {
+            System.err.println("❌ Error starting real-time transcription: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
 
-            // Wait for interruption
+    // Transcribes raw PCM from a pipe or socket as it arrives, results come out like live
+    // ones. Returns once the stream has ended and everything was decoded. A full capture
+    // buffer holds the writer back instead of dropping its audio.
+    public void transcribeStream(AudioSource source) {
+        try {
+            MicrophoneCapture streamCapture = MicrophoneCapture.start(source, chunkProfile.getChunkBytes(),
+                    AudioRingBuffer.forSeconds(captureBufferSeconds, OverflowPolicy.BLOCK));
+
+            System.out.println("\n📥 Reading raw PCM from " + source + "...");
+            System.out.println("📝 Streaming transcription:");
+            System.out.println("----------------------------------------");
+
+            Future<?> decoding = startDecoding(streamCapture);
             try {
-                Thread.currentThread().join();
+                decoding.get();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
+            } catch (CancellationException e) {
+                // Stopped from outside, e.g. Ctrl+C
             }
 
         } catch (Exception e) {
-            System.err.println("❌ Error starting real-time transcription: " + e.getMessage());
+            System.err.println("❌ Error transcribing stream: " + e.getMessage());
             e.printStackTrace();
         }
+        stopRealtime();
+    }
+
+    // Sets up the stream processor and starts decoding; capture runs on its own thread already
+    private Future<?> startDecoding(MicrophoneCapture microphoneCapture) {
+        this.capture = microphoneCapture;
+        this.captureBuffer = microphoneCapture.getRingBuffer();
+
+        isRecording.set(true);
+
+        MicrophoneStreamProcessor microphoneStreamProcessor = new MicrophoneStreamProcessor(
+                this.recognizer,
+                this.transcriptionRecognizerResultHandler,
+                microphoneCapture.getSource(),
+                isRecording,
+                captureBuffer
+        );
+
+        microphoneStreamProcessor.setChunkProfile(chunkProfile);
+        microphoneStreamProcessor.setPartialIntervalMillis(partialIntervalMillis);
+        if (adaptiveTargetLatencyMillis > 0) {
+            adaptiveChunkSizer = new AdaptiveChunkSizer(adaptiveTargetLatencyMillis, chunkProfile.getChunkBytes());
+            microphoneStreamProcessor.setAdaptiveChunkSizer(adaptiveChunkSizer);
+        }
+
+        if (vadConfig != null) {
+            realtimeGate = new VoiceActivityGate(vadConfig);
+            microphoneStreamProcessor.setVoiceActivityGate(realtimeGate);
+        }
+
+        if (wordCollector != null) {
+            recognizer.setWords(true);
+            // Times in the gated stream are mapped back to capture time
+            VoiceActivityGate gate = realtimeGate;
+            transcriptionRecognizerResultHandler.setWordCollector(wordCollector,
+                    gate != null ? gate::toSourceSeconds : DoubleUnaryOperator.identity());
+        }
+
+        if (overloadConfig != null) {
+            overloadController = new OverloadController("Live stream", overloadConfig);
+            microphoneStreamProcessor.setOverloadController(overloadController, fallbackPool);
+        }
+
+        decodeTask = executorService.submit(microphoneStreamProcessor::decodeAudioStream);
+        return decodeTask;
     }
 
     public void stopRealtime() {
+        if (!stopRequested.compareAndSet(false, true)) {
+            return;
+        }
         System.out.println("\n🛑 Stopping transcription...");
 
         isRecording.set(false);
 
-        if (microphone != null) {
-            microphone.stop();
-            microphone.close();
+        if (capture != null) {
+            capture.stop();
         }
 
+        // The decode loop sees isRecording and finishes its current chunk, it does not react
+        // to interrupts, so shutdownNow alone would leave it running
+        boolean decodeFinished = awaitDecodeTask();
+
         if (executorService != null) {
             executorService.shutdown();
             try {
@@ -146,7 +352,7 @@ public class Transcriber {
         }
 
         // Get final result
-        if (recognizer != null) {
+        if (recognizer != null && decodeFinished) {
             try {
                 String finalResult = recognizer.getFinalResult();
                 transcriptionRecognizerResultHandler.handleFinalResult(finalResult);
@@ -155,19 +361,115 @@ public class Transcriber {
             }
         }
 
+        if (wordCollector != null) {
+            try {
+                wordCollector.flush();
+                wordWriter.flush();
+                System.out.printf("🔤 %d word timings written%n", wordCollector.getWordCount());
+            } catch (IOException e) {
+                System.err.println("❌ Error writing word timings: " + e.getMessage());
+            }
+        }
+
+        for (TranscriptionEventDispatcher.Subscription subscription : eventDispatcher.getSubscriptions()) {
+            System.out.println("📨 Listener " + subscription);
+        }
+
+        if (captureBuffer != null) {
+            System.out.printf("🎚️  Capture buffer: high water %d of %d bytes, %d bytes dropped%n",
+                    captureBuffer.getHighWaterMark(), captureBuffer.getCapacity(), captureBuffer.getDroppedBytes());
+        }
+
+        if (adaptiveChunkSizer != null) {
+            System.out.printf("📏 Adaptive chunks: settled at %d bytes (%.0f ms), RTF %.2f%n",
+                    adaptiveChunkSizer.getChunkBytes(),
+                    adaptiveChunkSizer.getChunkBytes() * 1000.0 / BYTES_PER_SECOND,
+                    adaptiveChunkSizer.getSmoothedRealTimeFactor());
+        }
+
+        if (overloadController != null) {
+            System.out.println("🐢 Overload " + overloadController);
+        }
+
+        if (realtimeGate != null) {
+            System.out.printf("🔇 Voice activity gate skipped %.0f%% of the audio%n",
+                    realtimeGate.getSkippedFraction() * 100);
+        }
+
         System.out.println("\n📋 Complete transcription:");
         System.out.println("----------------------------------------");
         if (transcriptionRecognizerResultHandler != null) {
-            System.out.println(transcriptionRecognizerResultHandler.getCompleteTranscription());
+            try {
+                // Streamed, a long session's transcript may only exist on disk
+                transcriptionRecognizerResultHandler.writeCompleteTranscription(System.out);
+                System.out.println();
+                transcriptionRecognizerResultHandler.getTranscriptSink().flush();
+            } catch (IOException e) {
+                System.err.println("❌ Error reading transcript: " + e.getMessage());
+            }
         }
         System.out.println("----------------------------------------");
         System.out.println("✅ Transcription stopped");
+        stopped.countDown();
+    }
+
+    // True once no decode task is running, waiting a bounded time for the current one
+    private boolean awaitDecodeTask() {
+        Future<?> task = decodeTask;
+        if (task == null || task.isDone()) {
+            return true;
+        }
+        try {
+            task.get(DECODE_STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return true;
+        } catch (ExecutionException | CancellationException e) {
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return task.isDone();
+        }
     }
 
     public void cleanupRealtime() {
         stopRealtime();
+        close();
+    }
+
+    public void close() {
+        eventDispatcher.close();
+
+        try {
+            transcriptionRecognizerResultHandler.getTranscriptSink().close();
+        } catch (IOException e) {
+            System.err.println("❌ Error closing transcript: " + e.getMessage());
+        }
+
+        if (wordWriter != null) {
+            try {
+                wordCollector.flush();
+                wordWriter.close();
+            } catch (IOException e) {
+                System.err.println("❌ Error closing word timings: " + e.getMessage());
+            }
+        }
 
         // Clean up Vosk resources
+        if (recognizerPool != null) {
+            recognizerPool.close();
+        }
+
+        if (commandPool != null) {
+            commandPool.close();
+        }
+
+        // A decoder still running would use freed native memory, leaking is the lesser evil
+        if (!awaitDecodeTask()) {
+            System.err.println("⚠️  Decoder did not stop, leaving its recognizer and model open");
+            return;
+        }
+
         if (recognizer != null) {
             try {
                 recognizer.close();
@@ -176,23 +478,171 @@ public class Transcriber {
             }
         }
 
-        if (voskModel != null) {
-            try {
-                voskModel.close();
-            } catch (Exception e) {
-                // Ignore cleanup errors
-            }
+        // The decoder may have been on a fallback recognizer, its model goes only after it stopped
+        releaseFallback();
+
+        // The model stays in the registry for the next transcriber until it is evicted
+        if (modelHandle != null) {
+            modelHandle.close();
         }
     }
 
+    public ModelMetadata getModelMetadata() {
+        return modelHandle.getMetadata();
+    }
+
     // Transcribe audio file (non-realtime)
     public String transcribeAudioFile(String audioFilePath) throws IOException {
-        AudioFileTranscriber audioFileTranscriber = new AudioFileTranscriber(
-            voskModel
-        );
+        if (wordWriter != null) {
+            // Its own collector, the live one belongs to the decode thread and counts stream time
+            WordCollector fileCollector = new WordCollector(wordWriter::write, WordBatch.DEFAULT_CAPACITY,
+                    nextWordSourceId.getAndIncrement());
+            String text = audioFileTranscriber.transcribeWithWords(audioFilePath, fileCollector).getText();
+            fileCollector.flush();
+            wordWriter.flush();
+            System.out.printf("🔤 %d word timings of %s written as source %d%n",
+                    fileCollector.getWordCount(), audioFilePath, fileCollector.getSourceId());
+            return text;
+        }
         return audioFileTranscriber.transcribeFile(audioFilePath);
     }
 
+    // Transcribe many files (or directories of files) in parallel on the shared model
+    public BatchSummary transcribeAudioFiles(List<Path> inputs, int workers) throws IOException {
+        RecognizerPool pool = poolFor(workers);
+        try {
+            return transcribeAudioFiles(inputs, workers, pool);
+        } finally {
+            releasePool(pool);
+        }
+    }
+
+    private BatchSummary transcribeAudioFiles(List<Path> inputs, int workers, RecognizerPool pool) throws IOException {
+        BatchTranscriber batchTranscriber = new BatchTranscriber(pool, workers);
+        batchTranscriber.setVadConfig(vadConfig);
+        batchTranscriber.setChunkBytes(audioFileTranscriber.getChunkBytes());
+        if (audioFileTranscriber.getTranscriptCache() != null) {
+            batchTranscriber.setTranscriptCache(audioFileTranscriber.getTranscriptCache(), getModelMetadata());
+        }
+        batchTranscriber.setResultListener(result -> {
+            if (result.isSuccess()) {
+                System.out.printf("✅ %s (%.1f s audio in %d ms)%n",
+                        result.getFile(), result.getAudioSeconds(), result.getDecodeMillis());
+                System.out.println(result.getText());
+            } else {
+                System.err.println("❌ " + result.getFile() + ": " + result.getError());
+            }
+        });
+        return batchTranscriber.transcribe(BatchTranscriber.collectAudioFiles(inputs));
+    }
+
+    // Split one long file at pauses and decode the segments in parallel
+    public SegmentedTranscription transcribeAudioFileSegmented(String audioFilePath, int workers) throws IOException {
+        RecognizerPool pool = poolFor(workers);
+        try {
+            return new SegmentedFileTranscriber(pool, workers, SegmentationConfig.defaults())
+                    .transcribe(audioFilePath);
+        } finally {
+            releasePool(pool);
+        }
+    }
+
+    // The shared pool holds one recognizer per core. More workers than that get a dedicated pool
+    // for the call, built from scratch and closed after it; the shared pool's idle recognizers
+    // are not used, a worker beyond its size would otherwise only wait in borrow.
+    private RecognizerPool poolFor(int workers) {
+        if (workers <= recognizerPool.getMaxPerKey()) {
+            return recognizerPool;
+        }
+        System.out.printf("⚠️  %d workers on %d cores, using a dedicated pool of %d recognizers for this run%n",
+                workers, recognizerPool.getMaxPerKey(), workers);
+        return new RecognizerPool(voskModel, workers);
+    }
+
+    private void releasePool(RecognizerPool pool) {
+        if (pool != recognizerPool) {
+            pool.close();
+        }
+    }
+
+    // Decode every channel of a WAV file separately, e.g. both sides of a call recording
+    public ChannelTranscription transcribeAudioFileChannels(String audioFilePath, List<String> speakers)
+            throws IOException {
+        return new ChannelSplitTranscriber(recognizerPool).transcribe(audioFilePath, speakers);
+    }
+
+    public SegmentationAccuracy compareSegmentedWithSerial(String audioFilePath, int workers) throws IOException {
+        RecognizerPool pool = poolFor(workers);
+        try {
+            return new SegmentedFileTranscriber(pool, workers, SegmentationConfig.defaults())
+                    .compareWithSerial(audioFilePath, audioFileTranscriber);
+        } finally {
+            releasePool(pool);
+        }
+    }
+
+    // Replays the files as simulated microphones to find how many live streams this machine
+    // sustains, with this transcriber's chunking settings
+    public List<LoadStepResult> runLoadTest(List<String> audioFilePaths, int start, int step, int max,
+                                            double speed, double stepSeconds) throws IOException {
+        try (ReplayLoadGenerator generator = new ReplayLoadGenerator(voskModel, max,
+                ReplayLoadGenerator.loadPcm(audioFilePaths))) {
+            generator.setChunkProfile(chunkProfile);
+            generator.setPartialIntervalMillis(partialIntervalMillis);
+            generator.setSpeed(speed);
+            generator.setStepSeconds(stepSeconds);
+            if (overloadConfig != null) {
+                generator.setOverloadControl(overloadConfig,
+                        fallbackModelHandle != null ? fallbackModelHandle.getModel() : null);
+            }
+            return generator.ramp(start, step, max);
+        }
+    }
+
+    // Live streams that fall behind walk the config's ladder. The fallback model, e.g. a small
+    // model of the same language, is loaded now so switching to it costs no load time; without
+    // one the ladder stops before that step.
+    public void setOverloadControl(OverloadConfig overloadConfig, String fallbackModelPath) throws IOException {
+        releaseFallback();
+        if (fallbackModelPath != null && overloadConfig.getLadder().contains(DegradationStep.FALLBACK_MODEL)) {
+            fallbackModelHandle = ModelRegistry.global().acquire(fallbackModelPath);
+            fallbackPool = new RecognizerPool(fallbackModelHandle.getModel(), FALLBACK_RECOGNIZERS);
+            this.overloadConfig = overloadConfig;
+        } else {
+            this.overloadConfig = overloadConfig.without(DegradationStep.FALLBACK_MODEL);
+        }
+        System.out.println("🐢 Overload control: " + this.overloadConfig);
+    }
+
+    private void releaseFallback() {
+        if (fallbackPool != null) {
+            fallbackPool.close();
+            fallbackModelHandle.close();
+            fallbackPool = null;
+            fallbackModelHandle = null;
+        }
+    }
+
+    public OverloadConfig getOverloadConfig() {
+        return overloadConfig;
+    }
+
+    // Recognizes only the grammar's phrases, one per command stream
+    public CommandRecognizer openCommandRecognizer(CommandGrammar grammar) throws IOException {
+        return new CommandRecognizer(commandPool, grammar);
+    }
+
+    public RecognizerPool getCommandPool() {
+        return commandPool;
+    }
+
+    // Serve many concurrent streams over HTTP, sessions share this transcriber's model
+    public TranscriptionServer startServer(int port, ServerLimits limits) throws IOException {
+        TranscriptionServer server = TranscriptionServer.forModel(voskModel, new InetSocketAddress(port), limits);
+        server.start();
+        return server;
+    }
+
     // Test audio system
     public void testAudioSystem() {
         System.out.println("🔊 Testing audio system...");
@@ -216,8 +666,88 @@ public class Transcriber {
         }
     }
 
-    public void setTranscriptionListener(TranscriptionListener listener) {
-        this.transcriptionRecognizerResultHandler.setTranscriptionListener(listener);
+    public RecognizerPool getRecognizerPool() {
+        return recognizerPool;
+    }
+
+    public void setCaptureBufferSeconds(double captureBufferSeconds) {
+        this.captureBufferSeconds = captureBufferSeconds;
+    }
+
+    public void setCaptureOverflowPolicy(OverflowPolicy captureOverflowPolicy) {
+        this.captureOverflowPolicy = captureOverflowPolicy;
+    }
+
+    // Applies to realtime capture and file decoding, set before startRealtime
+    public void setChunkProfile(ChunkProfile chunkProfile) {
+        this.chunkProfile = chunkProfile;
+        audioFileTranscriber.setChunkBytes(chunkProfile.getChunkBytes());
+    }
+
+    public ChunkProfile getChunkProfile() {
+        return chunkProfile;
+    }
+
+    // Keeps the realtime transcript in an append-only log in this directory, earlier
+    // sessions' utterances found there are recovered and continued
+    public void setTranscriptLog(Path directory) throws IOException {
+        transcriptionRecognizerResultHandler.setTranscriptSink(SegmentedTranscriptLog.open(directory));
+    }
+
+    // File transcripts are kept in this directory and reused while audio, model and settings
+    // stay the same
+    public void setTranscriptCache(Path directory, long maxBytes) throws IOException {
+        audioFileTranscriber.setTranscriptCache(TranscriptCache.open(directory, maxBytes), getModelMetadata());
+    }
+
+    public TranscriptCache getTranscriptCache() {
+        return audioFileTranscriber.getTranscriptCache();
+    }
+
+    // Writes per-word timings and confidences of live and single-file transcription to
+    // this file, read back with WordBatchReader. Batches carry their source, times count from
+    // the start of the live stream or of the file.
+    public void setWordOutput(Path file) throws IOException {
+        wordWriter = new WordBatchWriter(Files.newOutputStream(file));
+        wordCollector = new WordCollector(wordWriter::write);
+    }
+
+    // Minimum time between partial results, -1 uses the chunk profile's interval
+    public void setPartialIntervalMillis(int partialIntervalMillis) {
+        this.partialIntervalMillis = partialIntervalMillis;
+    }
+
+    // Without partials on the console and no listener asking for them, none are computed
+    public void setConsolePartials(boolean consolePartials) {
+        transcriptionRecognizerResultHandler.setConsolePartials(consolePartials);
+    }
+
+    // Tunes the realtime chunk size to reach this result latency, 0 turns it off
+    public void setAdaptiveChunking(double targetLatencyMillis) {
+        this.adaptiveTargetLatencyMillis = targetLatencyMillis;
+    }
+
+    public void setVadConfig(VadConfig vadConfig) {
+        this.vadConfig = vadConfig;
+        this.audioFileTranscriber.setVadConfig(vadConfig);
+    }
+
+    public AudioRingBuffer getCaptureBuffer() {
+        return captureBuffer;
+    }
+
+    public TranscriptionEventDispatcher.Subscription addTranscriptionListener(TranscriptionListener listener) {
+        return eventDispatcher.addListener(listener);
+    }
+
+    // Results within windowMillis of each other arrive as one batch, e.g. for a UI
+    public TranscriptionEventDispatcher.Subscription addTranscriptionBatchListener(TranscriptionBatchListener listener,
+                                                                                  long windowMillis) {
+        return eventDispatcher.addBatchListener(listener, windowMillis);
+    }
+
+    public TranscriptionEventDispatcher getEventDispatcher() {
+        return eventDispatcher;
     }
 }
 
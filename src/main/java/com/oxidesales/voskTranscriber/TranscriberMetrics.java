@@ -0,0 +1,215 @@
+package com.oxidesales.voskTranscriber;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide decode metrics. The decode threads only ever increment adders and histogram
+// buckets, nothing here takes a lock on their path. Readers (JMX, MetricsReporter, the
+// server's /metrics endpoint) compute percentiles from a snapshot of the buckets.
+public class TranscriberMetrics implements TranscriberMetricsMBean {
+
+    public static final String OBJECT_NAME = "com.oxidesales.voskTranscriber:type=TranscriberMetrics";
+
+    private static final TranscriberMetrics GLOBAL = new TranscriberMetrics();
+
+    // From the moment audio arrived to the moment its result was handed on, in microseconds
+    private final LatencyHistogram partialLatency = new LatencyHistogram();
+
+    private final LatencyHistogram finalLatency = new LatencyHistogram();
+
+    private final LatencyHistogram acceptWaveFormTime = new LatencyHistogram();
+
+    private final LongAdder chunksProcessed = new LongAdder();
+
+    private final LongAdder audioBytesDecoded = new LongAdder();
+
+    private final LongAdder decodeNanos = new LongAdder();
+
+    private final LongAdder parseErrors = new LongAdder();
+
+    private final AtomicInteger activeRecognizers = new AtomicInteger();
+
+    public static TranscriberMetrics global() {
+        return GLOBAL;
+    }
+
+    // One acceptWaveForm call on length bytes of audio that took acceptNanos
+    public void recordChunk(int audioBytes, long acceptNanos) {
+        chunksProcessed.increment();
+        audioBytesDecoded.add(audioBytes);
+        decodeNanos.add(acceptNanos);
+        acceptWaveFormTime.record(acceptNanos / 1000);
+    }
+
+    public void recordPartial(long audioInNanos) {
+        partialLatency.record((System.nanoTime() - audioInNanos) / 1000);
+    }
+
+    public void recordFinal(long audioInNanos) {
+        finalLatency.record((System.nanoTime() - audioInNanos) / 1000);
+    }
+
+    public void recordParseError() {
+        parseErrors.increment();
+    }
+
+    public void recognizerActivated() {
+        activeRecognizers.incrementAndGet();
+    }
+
+    public void recognizerReleased() {
+        activeRecognizers.decrementAndGet();
+    }
+
+    public LatencyHistogram getPartialLatency() {
+        return partialLatency;
+    }
+
+    public LatencyHistogram getFinalLatency() {
+        return finalLatency;
+    }
+
+    public LatencyHistogram getAcceptWaveFormTime() {
+        return acceptWaveFormTime;
+    }
+
+    public long getDecodeNanos() {
+        return decodeNanos.sum();
+    }
+
+    public long getAudioBytesDecoded() {
+        return audioBytesDecoded.sum();
+    }
+
+    @Override
+    public long getChunksProcessed() {
+        return chunksProcessed.sum();
+    }
+
+    @Override
+    public long getParseErrors() {
+        return parseErrors.sum();
+    }
+
+    @Override
+    public int getActiveRecognizers() {
+        return activeRecognizers.get();
+    }
+
+    @Override
+    public double getAudioSecondsDecoded() {
+        return audioBytesDecoded.sum() / (double) Transcriber.BYTES_PER_SECOND;
+    }
+
+    // Time spent in acceptWaveForm per second of audio since start, above 1 means falling behind
+    @Override
+    public double getDecodeRealTimeFactor() {
+        return realTimeFactor(decodeNanos.sum(), audioBytesDecoded.sum());
+    }
+
+    static double realTimeFactor(long nanos, long audioBytes) {
+        return audioBytes > 0 ? (nanos / 1e9) / (audioBytes / (double) Transcriber.BYTES_PER_SECOND) : 0;
+    }
+
+    @Override
+    public double getPartialLatencyP50Millis() {
+        return partialLatency.getPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getPartialLatencyP99Millis() {
+        return partialLatency.getPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getFinalLatencyP50Millis() {
+        return finalLatency.getPercentile(50) / 1000.0;
+    }
+
+    @Override
+    public double getFinalLatencyP99Millis() {
+        return finalLatency.getPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public double getAcceptWaveFormP50Micros() {
+        return acceptWaveFormTime.getPercentile(50);
+    }
+
+    @Override
+    public double getAcceptWaveFormP99Micros() {
+        return acceptWaveFormTime.getPercentile(99);
+    }
+
+    @Override
+    public double getAcceptWaveFormMaxMicros() {
+        return acceptWaveFormTime.getMax();
+    }
+
+    // Registers with the platform MBean server, calling it again is harmless
+    public void registerMBean() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            mBeanServer.registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Already visible over JMX
+        } catch (JMException e) {
+            System.err.println("⚠️ Could not register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    // Prometheus text format, served by TranscriptionServer on /metrics
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        counter(text, "vosk_chunks_processed_total", getChunksProcessed());
+        counter(text, "vosk_parse_errors_total", getParseErrors());
+        gauge(text, "vosk_active_recognizers", getActiveRecognizers());
+        counter(text, "vosk_audio_decoded_seconds_total", getAudioSecondsDecoded());
+        gauge(text, "vosk_decode_real_time_factor", getDecodeRealTimeFactor());
+        summary(text, "vosk_partial_latency_seconds", partialLatency, 1e-6);
+        summary(text, "vosk_final_latency_seconds", finalLatency, 1e-6);
+        summary(text, "vosk_accept_waveform_seconds", acceptWaveFormTime, 1e-6);
+        return text.toString();
+    }
+
+    private static void counter(StringBuilder text, String name, long value) {
+        text.append("# TYPE ").append(name).append(" counter\n");
+        text.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder text, String name, double value) {
+        text.append("# TYPE ").append(name).append(" counter\n");
+        text.append(name).append(' ').append(format(value)).append('\n');
+    }
+
+    private static void gauge(StringBuilder text, String name, long value) {
+        text.append("# TYPE ").append(name).append(" gauge\n");
+        text.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder text, String name, double value) {
+        text.append("# TYPE ").append(name).append(" gauge\n");
+        text.append(name).append(' ').append(format(value)).append('\n');
+    }
+
+    private static void summary(StringBuilder text, String name, LatencyHistogram histogram, double scale) {
+        text.append("# TYPE ").append(name).append(" summary\n");
+        for (double quantile : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            text.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(format(histogram.getPercentile(quantile * 100) * scale)).append('\n');
+        }
+        long count = histogram.getCount();
+        text.append(name).append("_sum ").append(format(histogram.getMean() * count * scale)).append('\n');
+        text.append(name).append("_count ").append(count).append('\n');
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+}
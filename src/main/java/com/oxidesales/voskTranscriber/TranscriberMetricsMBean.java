@@ -0,0 +1,29 @@
+package com.oxidesales.voskTranscriber;
+
+// JMX view of TranscriberMetrics, latencies in milliseconds unless the name says otherwise
+public interface TranscriberMetricsMBean {
+
+    long getChunksProcessed();
+
+    long getParseErrors();
+
+    int getActiveRecognizers();
+
+    double getAudioSecondsDecoded();
+
+    double getDecodeRealTimeFactor();
+
+    double getPartialLatencyP50Millis();
+
+    double getPartialLatencyP99Millis();
+
+    double getFinalLatencyP50Millis();
+
+    double getFinalLatencyP99Millis();
+
+    double getAcceptWaveFormP50Micros();
+
+    double getAcceptWaveFormP99Micros();
+
+    double getAcceptWaveFormMaxMicros();
+}
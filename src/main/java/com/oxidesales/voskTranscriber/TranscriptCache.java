@@ -0,0 +1,226 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// File transcripts on disk, keyed by what produced them: XXH64 of the audio file's bytes plus
+// XXH64 of the model identity and decoder settings. A hit comes back without a recognizer.
+// Entries are written to a temp file and renamed into place, so parallel workers (and other
+// processes sharing the directory) never see half an entry. Over the size budget the least
+// recently used entries are deleted; a hit refreshes an entry's modification time.
+public class TranscriptCache {
+
+    public static final long DEFAULT_MAX_BYTES = 1024L * 1024 * 1024;
+
+    private static final String ENTRY_SUFFIX = ".transcript";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // Temp files this old are left over from a crashed writer
+    private static final long STALE_TEMP_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    // Eviction goes below the budget so the next few stores do not evict again
+    private static final double EVICT_TO_FRACTION = 0.9;
+
+    private final Path directory;
+
+    private final long maxBytes;
+
+    // Approximate between evictions, every eviction pass recounts the directory
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private TranscriptCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    public static TranscriptCache open(Path directory) throws IOException {
+        return open(directory, DEFAULT_MAX_BYTES);
+    }
+
+    public static TranscriptCache open(Path directory, long maxBytes) throws IOException {
+        Files.createDirectories(directory);
+        TranscriptCache cache = new TranscriptCache(directory, maxBytes);
+        cache.evictIfNeeded(true);
+        return cache;
+    }
+
+    // Names the model by what it is rather than where it lives
+    public static String modelIdentity(ModelMetadata metadata) {
+        return metadata.getPath().getFileName() + ":" + metadata.getSizeBytes() + ":"
+                + metadata.getLanguage() + ":" + metadata.getSampleRate();
+    }
+
+    // settings has to capture everything that changes the transcript: model, VAD, chunking
+    public String key(Path audioFile, String settings) throws IOException {
+        return String.format("%016x-%016x", Xxh64.hashFile(audioFile, 0), Xxh64.hash(settings, 0));
+    }
+
+    // Null on a miss, a damaged entry counts as one and is removed
+    public FileTranscription get(String key) throws IOException {
+        Path entry = directory.resolve(key + ENTRY_SUFFIX);
+        byte[] content;
+        try {
+            content = Files.readAllBytes(entry);
+        } catch (NoSuchFileException e) {
+            misses.increment();
+            return null;
+        }
+
+        FileTranscription transcription = parse(new String(content, StandardCharsets.UTF_8));
+        if (transcription == null) {
+            Files.deleteIfExists(entry);
+            misses.increment();
+            return null;
+        }
+
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // Evicted meanwhile, the content is still good
+        }
+        hits.increment();
+        return transcription;
+    }
+
+    // First line "audioBytes skippedBytes", the text after it
+    private static FileTranscription parse(String content) {
+        int newline = content.indexOf('\n');
+        if (newline < 0) {
+            return null;
+        }
+        String[] header = content.substring(0, newline).split(" ");
+        if (header.length != 2) {
+            return null;
+        }
+        try {
+            return new FileTranscription(content.substring(newline + 1),
+                    Long.parseLong(header[0]), Long.parseLong(header[1]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public void put(String key, FileTranscription transcription) throws IOException {
+        byte[] content = (transcription.getAudioBytes() + " " + transcription.getSkippedBytes() + "\n"
+                + transcription.getText()).getBytes(StandardCharsets.UTF_8);
+
+        Path entry = directory.resolve(key + ENTRY_SUFFIX);
+        Path temp = Files.createTempFile(directory, key + "-", TEMP_SUFFIX);
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        stores.increment();
+        if (totalBytes.addAndGet(content.length) > maxBytes) {
+            evictIfNeeded(false);
+        }
+    }
+
+    // Recounts the directory and deletes least recently used entries while over budget
+    private synchronized void evictIfNeeded(boolean removeStaleTemps) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        List<BasicFileAttributes> attributes = new ArrayList<>();
+        long total = 0;
+        long now = System.currentTimeMillis();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (name.endsWith(ENTRY_SUFFIX)) {
+                        entries.add(file);
+                        attributes.add(attrs);
+                        total += attrs.size();
+                    } else if (removeStaleTemps && name.endsWith(TEMP_SUFFIX)
+                            && now - attrs.lastModifiedTime().toMillis() > STALE_TEMP_MILLIS) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (NoSuchFileException e) {
+                    // Replaced or evicted by another writer
+                }
+            }
+        }
+
+        if (total > maxBytes) {
+            List<Integer> order = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparing(i -> attributes.get(i).lastModifiedTime()));
+
+            long target = (long) (maxBytes * EVICT_TO_FRACTION);
+            for (int i : order) {
+                if (total <= target) {
+                    break;
+                }
+                Files.deleteIfExists(entries.get(i));
+                total -= attributes.get(i).size();
+                evictions.increment();
+            }
+        }
+        totalBytes.set(total);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d hits, %d misses, %d stored, %d evicted, %.1f of %.0f MB used",
+                getHits(), getMisses(), getStores(), getEvictions(),
+                getTotalBytes() / (1024.0 * 1024), maxBytes / (1024.0 * 1024));
+    }
+}
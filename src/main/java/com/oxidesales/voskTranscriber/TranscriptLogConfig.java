@@ -0,0 +1,49 @@
+package com.oxidesales.voskTranscriber;
+
+public class TranscriptLogConfig {
+
+    // A segment file is closed and a new one started once it passes this size
+    private final long segmentBytes;
+
+    // Longest time an appended utterance waits for fsync
+    private final long syncIntervalMillis;
+
+    // Utterances appended before an fsync is forced regardless of the interval
+    private final int syncEveryRecords;
+
+    // Characters of recent transcript kept in memory
+    private final int windowChars;
+
+    public TranscriptLogConfig(long segmentBytes, long syncIntervalMillis, int syncEveryRecords, int windowChars) {
+        if (segmentBytes < 1024) {
+            throw new IllegalArgumentException("Segments must be at least 1 KB");
+        }
+        if (syncIntervalMillis < 1 || syncEveryRecords < 1) {
+            throw new IllegalArgumentException("Sync interval and batch size must be positive");
+        }
+        this.segmentBytes = segmentBytes;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.syncEveryRecords = syncEveryRecords;
+        this.windowChars = windowChars;
+    }
+
+    public static TranscriptLogConfig defaults() {
+        return new TranscriptLogConfig(8 * 1024 * 1024, 1000, 64, 64 * 1024);
+    }
+
+    public long getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    public long getSyncIntervalMillis() {
+        return syncIntervalMillis;
+    }
+
+    public int getSyncEveryRecords() {
+        return syncEveryRecords;
+    }
+
+    public int getWindowChars() {
+        return windowChars;
+    }
+}
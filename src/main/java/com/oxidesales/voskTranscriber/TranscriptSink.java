@@ -0,0 +1,29 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+
+// Where final utterances go. Implementations keep memory bounded to a recent window; the
+// complete transcript is streamed out with writeTo rather than built up on the heap.
+public interface TranscriptSink extends AutoCloseable {
+
+    void append(String utterance) throws IOException;
+
+    // The last utterances that fit the in-memory window, oldest first
+    String getRecentTranscription();
+
+    // Every utterance this sink holds, separated by spaces
+    void writeTo(Appendable out) throws IOException;
+
+    default String getCompleteTranscription() throws IOException {
+        StringBuilder transcription = new StringBuilder();
+        writeTo(transcription);
+        return transcription.toString().trim();
+    }
+
+    // Makes appended utterances durable where the sink supports it
+    default void flush() throws IOException {
+    }
+
+    @Override
+    void close() throws IOException;
+}
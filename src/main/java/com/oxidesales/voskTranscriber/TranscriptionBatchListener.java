@@ -0,0 +1,13 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.List;
+
+// Receives results in batches, e.g. one UI update per batch instead of one per utterance
+public interface TranscriptionBatchListener {
+    // Events in the order they were produced, never empty
+    void onTranscriptions(List<TranscriptionEvent> events);
+
+    default boolean wantsPartials() {
+        return false;
+    }
+}
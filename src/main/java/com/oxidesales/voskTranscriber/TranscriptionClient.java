@@ -0,0 +1,207 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Client for TranscriptionServer. Uploads PCM with chunked encoding on one thread while
+// results are read back on the calling thread, so partials arrive during the upload.
+public class TranscriptionClient {
+
+    public interface Listener {
+        // Returning false asks the server not to compute partials for this stream
+        default boolean wantsPartials() {
+            return true;
+        }
+
+        void onPartial(String text);
+
+        void onFinal(String text);
+
+        default void onError(String message) {
+            System.err.println("❌ Server error: " + message);
+        }
+    }
+
+    private final String host;
+
+    private final int port;
+
+    public TranscriptionClient(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    // Returns once the server has sent its last result for the stream
+    public void transcribe(InputStream pcm, Listener listener) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+
+            String path = TranscriptionServer.TRANSCRIBE_PATH + (listener.wantsPartials() ? "" : "?partials=false");
+            String request = "POST " + path + " HTTP/1.1\r\n"
+                    + "Host: " + host + ":" + port + "\r\n"
+                    + "Content-Type: application/octet-stream\r\n"
+                    + "Transfer-Encoding: chunked\r\n"
+                    + "Connection: close\r\n\r\n";
+            out.write(request.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            AtomicReference<IOException> uploadError = new AtomicReference<>();
+            Thread uploader = Thread.ofPlatform().daemon().name("transcription-upload").start(() -> {
+                try {
+                    upload(pcm, out);
+                } catch (IOException e) {
+                    uploadError.set(e);
+                }
+            });
+
+            try {
+                readResponse(in, listener);
+            } finally {
+                try {
+                    uploader.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (uploadError.get() != null) {
+                throw uploadError.get();
+            }
+        }
+    }
+
+    private static void upload(InputStream pcm, OutputStream out) throws IOException {
+        byte[] buffer = new byte[Transcriber.CHUNK_SIZE];
+        int bytesRead;
+        while ((bytesRead = pcm.read(buffer)) != -1) {
+            if (bytesRead == 0) {
+                continue;
+            }
+            out.write((Integer.toHexString(bytesRead) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(buffer, 0, bytesRead);
+            out.write('\r');
+            out.write('\n');
+            out.flush();
+        }
+        out.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private static void readResponse(InputStream in, Listener listener) throws IOException {
+        String statusLine = readAsciiLine(in);
+        String[] status = statusLine.split(" ", 3);
+        if (status.length < 2) {
+            throw new IOException("Bad HTTP status line: " + statusLine);
+        }
+
+        boolean chunked = false;
+        long contentLength = -1;
+        String header;
+        while (!(header = readAsciiLine(in)).isEmpty()) {
+            String lower = header.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("transfer-encoding:") && lower.contains("chunked")) {
+                chunked = true;
+            } else if (lower.startsWith("content-length:")) {
+                contentLength = Long.parseLong(header.substring(15).trim());
+            }
+        }
+
+        LineSplitter lines = new LineSplitter(listener);
+        if (chunked) {
+            long size;
+            while ((size = Long.parseLong(readAsciiLine(in).split(";")[0].trim(), 16)) > 0) {
+                copy(in, size, lines);
+                readAsciiLine(in);
+            }
+        } else if (contentLength >= 0) {
+            copy(in, contentLength, lines);
+        } else {
+            int b;
+            while ((b = in.read()) != -1) {
+                lines.accept(b);
+            }
+        }
+        lines.finish();
+
+        if (!status[1].equals("200")) {
+            throw new IOException("Server refused the session: " + statusLine);
+        }
+    }
+
+    private static void copy(InputStream in, long count, LineSplitter lines) throws IOException {
+        for (long i = 0; i < count; i++) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Connection closed inside a chunk");
+            }
+            lines.accept(b);
+        }
+    }
+
+    private static String readAsciiLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                throw new EOFException("Connection closed by server");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    // Turns the response body into result lines, results use the Vosk JSON shape
+    private static class LineSplitter {
+        private final Listener listener;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private final VoskResultDecoder resultDecoder = new VoskResultDecoder();
+
+        private LineSplitter(Listener listener) {
+            this.listener = listener;
+        }
+
+        void accept(int b) throws IOException {
+            if (b == '\n') {
+                emit(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+            } else {
+                line.write(b);
+            }
+        }
+
+        void finish() throws IOException {
+            if (line.size() > 0) {
+                emit(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+            }
+        }
+
+        private void emit(String json) throws IOException {
+            if (json.isBlank()) {
+                return;
+            }
+            resultDecoder.decode(json);
+            if (resultDecoder.hasText()) {
+                if (resultDecoder.isPartial()) {
+                    listener.onPartial(resultDecoder.textString());
+                } else {
+                    listener.onFinal(resultDecoder.textString());
+                }
+            } else if (json.contains("\"error\"")) {
+                listener.onError(json);
+            }
+        }
+    }
+}
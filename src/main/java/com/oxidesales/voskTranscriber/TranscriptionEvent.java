@@ -0,0 +1,44 @@
+package com.oxidesales.voskTranscriber;
+
+// One result on its way from the decode thread to a listener
+public class TranscriptionEvent {
+
+    public enum Type {
+        PARTIAL,
+        FINAL
+    }
+
+    private final Type type;
+
+    private final String text;
+
+    // System.nanoTime when the decoder produced it, the queue lag is measured from here
+    private final long createdNanos;
+
+    public TranscriptionEvent(Type type, String text, long createdNanos) {
+        this.type = type;
+        this.text = text;
+        this.createdNanos = createdNanos;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public boolean isFinal() {
+        return type == Type.FINAL;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    @Override
+    public String toString() {
+        return type + ": " + text;
+    }
+}
@@ -0,0 +1,309 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// Hands results from the decode thread to any number of listeners. Each subscription has its
+// own bounded queue and delivery thread, so publishing is an enqueue and a slow listener only
+// falls behind itself. A full queue drops by its overflow policy, the decoder never waits.
+// A queued partial that has not been delivered yet is replaced by the next one.
+public class TranscriptionEventDispatcher implements TranscriptionListener, AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // Read by the decode thread for every chunk, kept up to date by subscribe and cancel
+    private volatile boolean partialsWanted;
+
+    private int subscriptionCount;
+
+    private volatile boolean closed;
+
+    public Subscription addListener(TranscriptionListener listener) {
+        return addListener(listener, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public Subscription addListener(TranscriptionListener listener, int queueCapacity, OverflowPolicy overflowPolicy) {
+        return subscribe(listener.wantsPartials(), 0, queueCapacity, overflowPolicy,
+                events -> {
+                    for (TranscriptionEvent event : events) {
+                        if (event.isFinal()) {
+                            listener.onTranscription(event.getText());
+                        } else {
+                            listener.onPartialTranscription(event.getText());
+                        }
+                    }
+                });
+    }
+
+    // Events arriving within windowMillis of the first one of a batch are delivered together
+    public Subscription addBatchListener(TranscriptionBatchListener listener, long windowMillis) {
+        return addBatchListener(listener, windowMillis, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public Subscription addBatchListener(TranscriptionBatchListener listener, long windowMillis,
+                                         int queueCapacity, OverflowPolicy overflowPolicy) {
+        return subscribe(listener.wantsPartials(), windowMillis, queueCapacity, overflowPolicy,
+                listener::onTranscriptions);
+    }
+
+    private synchronized Subscription subscribe(boolean wantsPartials, long windowMillis,
+                                                int queueCapacity, OverflowPolicy overflowPolicy,
+                                                TranscriptionBatchListener delivery) {
+        if (closed) {
+            throw new IllegalStateException("Dispatcher is closed");
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            throw new IllegalArgumentException("Listener queues cannot block the decode thread, use a DROP policy");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        Subscription subscription = new Subscription(this, "listener-" + (++subscriptionCount), wantsPartials,
+                windowMillis, queueCapacity, overflowPolicy, delivery);
+        subscriptions.add(subscription);
+        partialsWanted |= wantsPartials;
+        subscription.worker.start();
+        return subscription;
+    }
+
+    // Once the last partial subscriber is gone the decoder stops computing partials again
+    private synchronized void unsubscribe(Subscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        boolean wanted = false;
+        for (Subscription remaining : subscriptions) {
+            wanted |= remaining.wantsPartials;
+        }
+        partialsWanted = wanted;
+    }
+
+    @Override
+    public void onTranscription(String text) {
+        publish(new TranscriptionEvent(TranscriptionEvent.Type.FINAL, text, System.nanoTime()));
+    }
+
+    @Override
+    public void onPartialTranscription(String text) {
+        publish(new TranscriptionEvent(TranscriptionEvent.Type.PARTIAL, text, System.nanoTime()));
+    }
+
+    @Override
+    public boolean wantsPartials() {
+        return partialsWanted;
+    }
+
+    private void publish(TranscriptionEvent event) {
+        for (Subscription subscription : subscriptions) {
+            if (event.isFinal() || subscription.wantsPartials) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    public boolean hasListeners() {
+        return !subscriptions.isEmpty();
+    }
+
+    public List<Subscription> getSubscriptions() {
+        return List.copyOf(subscriptions);
+    }
+
+    // Delivers what is still queued, waiting a bounded time for slow listeners
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CLOSE_TIMEOUT_MILLIS);
+        for (Subscription subscription : subscriptions) {
+            try {
+                subscription.worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public static class Subscription {
+
+        private final TranscriptionEventDispatcher owner;
+
+        private final String name;
+
+        private final boolean wantsPartials;
+
+        private final long windowNanos;
+
+        private final int capacity;
+
+        private final OverflowPolicy overflowPolicy;
+
+        private final TranscriptionBatchListener delivery;
+
+        private final Thread worker;
+
+        private final ArrayDeque<TranscriptionEvent> queue = new ArrayDeque<>();
+
+        // Microseconds from the decoder producing an event to its delivery starting
+        private final LatencyHistogram lag = new LatencyHistogram();
+
+        private long delivered;
+
+        private long dropped;
+
+        private long superseded;
+
+        private long failures;
+
+        private boolean closed;
+
+        private Subscription(TranscriptionEventDispatcher owner, String name, boolean wantsPartials,
+                             long windowMillis, int capacity, OverflowPolicy overflowPolicy,
+                             TranscriptionBatchListener delivery) {
+            this.owner = owner;
+            this.name = name;
+            this.wantsPartials = wantsPartials;
+            this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+            this.capacity = capacity;
+            this.overflowPolicy = overflowPolicy;
+            this.delivery = delivery;
+            // Platform thread, listeners may well block on locks or I/O
+            this.worker = new Thread(this::deliverLoop, "transcription-" + name);
+            this.worker.setDaemon(true);
+        }
+
+        private synchronized void offer(TranscriptionEvent event) {
+            if (closed) {
+                return;
+            }
+            TranscriptionEvent last = queue.peekLast();
+            if (!event.isFinal() && last != null && !last.isFinal()) {
+                // Only the newest partial matters
+                queue.pollLast();
+                superseded++;
+            } else if (queue.size() == capacity) {
+                dropped++;
+                if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                    return;
+                }
+                queue.pollFirst();
+            }
+            queue.addLast(event);
+            notifyAll();
+        }
+
+        private void deliverLoop() {
+            List<TranscriptionEvent> batch = new ArrayList<>();
+            while (true) {
+                synchronized (this) {
+                    try {
+                        while (queue.isEmpty() && !closed) {
+                            wait();
+                        }
+                        if (queue.isEmpty()) {
+                            return;
+                        }
+                        // Let the batch window fill up, unless we are shutting down
+                        long due = queue.peekFirst().getCreatedNanos() + windowNanos;
+                        long remaining;
+                        while (!closed && (remaining = due - System.nanoTime()) > 0) {
+                            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    batch.addAll(queue);
+                    queue.clear();
+                }
+
+                long now = System.nanoTime();
+                for (TranscriptionEvent event : batch) {
+                    lag.record(TimeUnit.NANOSECONDS.toMicros(now - event.getCreatedNanos()));
+                }
+                try {
+                    delivery.onTranscriptions(List.copyOf(batch));
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        failures++;
+                    }
+                    System.err.println("❌ Transcription " + name + " failed: " + e.getMessage());
+                }
+                synchronized (this) {
+                    delivered += batch.size();
+                }
+                batch.clear();
+            }
+        }
+
+        private synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        // Stops delivery, events still queued are dropped. The delivery thread ends after the
+        // batch it is handing over, so a listener may cancel its own subscription.
+        public void cancel() {
+            owner.unsubscribe(this);
+            synchronized (this) {
+                queue.clear();
+                closed = true;
+                notifyAll();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public synchronized int getQueued() {
+            return queue.size();
+        }
+
+        public synchronized long getDelivered() {
+            return delivered;
+        }
+
+        public synchronized long getDropped() {
+            return dropped;
+        }
+
+        public synchronized long getSuperseded() {
+            return superseded;
+        }
+
+        public synchronized long getFailures() {
+            return failures;
+        }
+
+        public LatencyHistogram getLag() {
+            return lag;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d delivered, %d queued, %d dropped, %d superseded partials, "
+                            + "lag p50 %.1f ms p99 %.1f ms max %.1f ms",
+                    name, getDelivered(), getQueued(), getDropped(), getSuperseded(),
+                    lag.getPercentile(50) / 1000.0, lag.getPercentile(99) / 1000.0, lag.getMax() / 1000.0);
+        }
+    }
+}
@@ -2,4 +2,12 @@ package com.oxidesales.voskTranscriber;
 
 public interface TranscriptionListener {
     void onTranscription(String text);
+
+    // Partials are only fetched from the recognizer when some subscriber asks for them
+    default boolean wantsPartials() {
+        return false;
+    }
+
+    default void onPartialTranscription(String text) {
+    }
 }
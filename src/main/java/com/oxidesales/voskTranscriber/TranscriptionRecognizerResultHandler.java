@@ -1,39 +1,120 @@
 package com.oxidesales.voskTranscriber;
 
-import org.codehaus.jackson.JsonNode;
-import org.codehaus.jackson.map.ObjectMapper;
+import java.io.IOException;
+import java.util.function.DoubleUnaryOperator;
 
 public class TranscriptionRecognizerResultHandler {
 
-    // Transcription state
-    private final StringBuilder currentTranscription = new StringBuilder();
+    // Transcription state, a bounded recent window unless a log on disk is plugged in
+    private TranscriptSink transcriptSink = new MemoryTranscriptSink();
 
-    private final ObjectMapper objectMapper;
+    private final VoskResultDecoder resultDecoder;
 
     private String lastPartialResult = "";
 
+    // Raw JSON of the last partial, an identical string is skipped without parsing
+    private String lastPartialJson = "";
+
     private TranscriptionListener listener;
 
+    // Word timings of final results, null when words are not wanted
+    private WordCollector wordCollector;
+
+    private DoubleUnaryOperator toStreamSeconds = DoubleUnaryOperator.identity();
+
+    // Stream time at which the current recognizer's clock reads 0, see setRecognizerOffsetSeconds
+    private double recognizerOffsetSeconds;
+
+    // toStreamSeconds after the recognizer offset, what the collector is given
+    private DoubleUnaryOperator wordTimeMapping = toStreamSeconds;
+
+    // Off for headless runs and benchmarks, results still reach the listener
+    private boolean consoleOutput = true;
+
+    // The console line counts as a partial subscriber unless turned off
+    private boolean consolePartials = true;
+
     public TranscriptionRecognizerResultHandler() {
-        this.objectMapper = new ObjectMapper();
+        this.resultDecoder = new VoskResultDecoder();
     }
 
     public void setTranscriptionListener(TranscriptionListener listener) {
         this.listener = listener;
     }
 
-    public void handleFinalResult(String jsonResult) {
+    public void setTranscriptSink(TranscriptSink transcriptSink) {
+        this.transcriptSink = transcriptSink;
+    }
+
+    public TranscriptSink getTranscriptSink() {
+        return transcriptSink;
+    }
+
+    // The recognizer has to produce words too, see Recognizer.setWords
+    public void setWordCollector(WordCollector wordCollector, DoubleUnaryOperator toStreamSeconds) {
+        this.wordCollector = wordCollector;
+        this.toStreamSeconds = toStreamSeconds;
+        updateWordTimeMapping();
+    }
+
+    // Set when results start coming from another recognizer, e.g. a fallback model's one that
+    // joins mid-stream, or the primary one after it missed the audio the fallback decoded
+    public void setRecognizerOffsetSeconds(double recognizerOffsetSeconds) {
+        this.recognizerOffsetSeconds = recognizerOffsetSeconds;
+        updateWordTimeMapping();
+    }
+
+    private void updateWordTimeMapping() {
+        double offset = recognizerOffsetSeconds;
+        DoubleUnaryOperator mapping = toStreamSeconds;
+        wordTimeMapping = offset == 0 ? mapping : seconds -> mapping.applyAsDouble(offset + seconds);
+    }
+
+    public WordCollector getWordCollector() {
+        return wordCollector;
+    }
+
+    public void setConsoleOutput(boolean consoleOutput) {
+        this.consoleOutput = consoleOutput;
+    }
+
+    public void setConsolePartials(boolean consolePartials) {
+        this.consolePartials = consolePartials;
+    }
+
+    // False means partial results can be skipped entirely, not even fetched from the recognizer
+    public boolean wantsPartials() {
+        return (consoleOutput && consolePartials) || (listener != null && listener.wantsPartials());
+    }
+
+    // True when the result carried text and was passed on
+    public boolean handleFinalResult(String jsonResult) {
         try {
-            JsonNode resultNode = objectMapper.readTree(jsonResult);
-            String text = resultNode.get("text").asText().trim();
+            resultDecoder.decode(jsonResult);
+
+            if (wordCollector != null) {
+                try {
+                    wordCollector.collect(resultDecoder, wordTimeMapping);
+                } catch (IOException e) {
+                    System.err.println("❌ Error writing word timings: " + e.getMessage());
+                }
+            }
+
+            if (!resultDecoder.isTextEmpty()) {
+                String text = resultDecoder.textString();
 
-            if (!text.isEmpty()) {
                 // Clear partial result line and show final result
                 clearPartialResult();
-                System.out.println("✅ " + text);
+                if (consoleOutput) {
+                    System.out.println("✅ " + text);
+                }
 
                 // Add to complete transcription
-                currentTranscription.append(text).append(" ");
+                try {
+                    transcriptSink.append(text);
+                } catch (IOException e) {
+                    System.err.println("❌ Error writing transcript: " + e.getMessage());
+                }
 
                 if (listener != null) {
                     listener.onTranscription(text);
@@ -41,40 +122,72 @@ public class TranscriptionRecognizerResultHandler {
 
                 // Clear partial result
                 lastPartialResult = "";
+                lastPartialJson = "";
+                return true;
             }
 
         } catch (Exception e) {
+            TranscriberMetrics.global().recordParseError();
             System.err.println("❌ Error parsing final result: " + e.getMessage());
         }
+        return false;
     }
 
-    public void handlePartialResult(String jsonResult) {
+    // True when the partial changed and was passed on
+    public boolean handlePartialResult(String jsonResult) {
+        // Vosk renders the same partial to the same JSON, repeats need no parsing at all
+        if (jsonResult.equals(lastPartialJson)) {
+            return false;
+        }
+        lastPartialJson = jsonResult;
+
         try {
-            JsonNode resultNode = objectMapper.readTree(jsonResult);
-            String partialText = resultNode.get("partial").asText().trim();
+            resultDecoder.decode(jsonResult);
+
+            // Compared in place, a String is only made for a partial that changed
+            if (!resultDecoder.isTextEmpty() && !resultDecoder.textEquals(lastPartialResult)) {
+                String partialText = resultDecoder.textString();
 
-            if (!partialText.isEmpty() && !partialText.equals(lastPartialResult)) {
                 // Clear previous partial result
                 clearPartialResult();
 
                 // Show new partial result
-                System.out.print("🔄 " + partialText);
-                System.out.flush();
+                if (consoleOutput && consolePartials) {
+                    System.out.print("🔄 " + partialText);
+                    System.out.flush();
+                }
 
                 lastPartialResult = partialText;
+
+                if (listener != null && listener.wantsPartials()) {
+                    listener.onPartialTranscription(partialText);
+                }
+                return true;
             }
 
         } catch (Exception e) {
+            TranscriberMetrics.global().recordParseError();
             System.err.println("❌ Error parsing partial result: " + e.getMessage());
         }
+        return false;
     }
 
     public String getCompleteTranscription() {
-        return currentTranscription.toString().trim();
+        try {
+            return transcriptSink.getCompleteTranscription();
+        } catch (IOException e) {
+            System.err.println("❌ Error reading transcript: " + e.getMessage());
+            return transcriptSink.getRecentTranscription();
+        }
+    }
+
+    // Streams the whole transcript without holding it in memory
+    public void writeCompleteTranscription(Appendable out) throws IOException {
+        transcriptSink.writeTo(out);
     }
 
     private void clearPartialResult() {
-        if (!lastPartialResult.isEmpty()) {
+        if (consoleOutput && consolePartials && !lastPartialResult.isEmpty()) {
             // Move cursor to beginning of line and clear it
             System.out.print("\r" + " ".repeat(lastPartialResult.length() + 10) + "\r");
             System.out.flush();
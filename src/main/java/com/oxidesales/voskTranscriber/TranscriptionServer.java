@@ -0,0 +1,324 @@
+package com.oxidesales.voskTranscriber;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.vosk.Model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// HTTP server for many concurrent audio streams. A client POSTs raw 16 kHz mono 16-bit
+// PCM to /transcribe with chunked transfer encoding and reads newline-delimited JSON
+// back while it is still sending: {"partial":"..."} and {"text":"..."} as Vosk produces
+// them, {"error":"..."} when the session is cut off.
+public class TranscriptionServer implements AutoCloseable {
+
+    public static final String TRANSCRIBE_PATH = "/transcribe";
+
+    public static final String METRICS_PATH = "/metrics";
+
+    // Past the time limit a sending client is told why, one that sends nothing is cut off here
+    private static final long SESSION_DEADLINE_GRACE_MILLIS = 2000;
+
+    // How long close() waits for running sessions, before and after cutting them off
+    private static final long SHUTDOWN_GRACE_SECONDS = 5;
+
+    private final HttpServer httpServer;
+
+    private final ExecutorService sessionExecutor;
+
+    private final ScheduledExecutorService sessionDeadlines;
+
+    private final SessionDecoderFactory decoderFactory;
+
+    private final ServerLimits limits;
+
+    private final Semaphore sessionPermits;
+
+    private final AtomicLong sessionsStarted = new AtomicLong();
+
+    private final AtomicLong sessionsRejected = new AtomicLong();
+
+    private volatile boolean closing;
+
+    // Recognizers owned by this server, closed with it
+    private final RecognizerPool recognizerPool;
+
+    public TranscriptionServer(InetSocketAddress address, SessionDecoderFactory decoderFactory, ServerLimits limits)
+            throws IOException {
+        this(address, decoderFactory, limits, null);
+    }
+
+    private TranscriptionServer(InetSocketAddress address, SessionDecoderFactory decoderFactory, ServerLimits limits,
+                                RecognizerPool recognizerPool) throws IOException {
+        this.recognizerPool = recognizerPool;
+        this.decoderFactory = decoderFactory;
+        this.limits = limits;
+        this.sessionPermits = new Semaphore(limits.getMaxSessions());
+
+        // One thread per session, the session semaphore keeps the count bounded. Not virtual threads:
+        // the JDK server reads request bodies inside synchronized blocks, which pins the carrier
+        // threads and lets a few slow uploads starve every other session.
+        this.sessionExecutor = Executors.newCachedThreadPool();
+        this.sessionDeadlines = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpServer = HttpServer.create(address, 0);
+        this.httpServer.setExecutor(sessionExecutor);
+    }
+
+    // Vosk sessions on a shared model, one pooled recognizer per session
+    public static TranscriptionServer forModel(Model voskModel, InetSocketAddress address, ServerLimits limits)
+            throws IOException {
+        RecognizerPool recognizerPool = new RecognizerPool(voskModel, limits.getMaxSessions());
+        SessionDecoderFactory decoderFactory =
+                VoskSessionDecoder.factory(recognizerPool, limits.getRecognizerWaitMillis());
+        return new TranscriptionServer(address, decoderFactory, limits, recognizerPool);
+    }
+
+    public void start() {
+        httpServer.createContext(TRANSCRIBE_PATH, this::handleSession);
+        httpServer.createContext(METRICS_PATH, this::handleMetrics);
+        httpServer.start();
+        System.out.println("🌐 Transcription server listening on " + getAddress());
+    }
+
+    public InetSocketAddress getAddress() {
+        return httpServer.getAddress();
+    }
+
+    public int getActiveSessions() {
+        return limits.getMaxSessions() - sessionPermits.availablePermits();
+    }
+
+    public long getSessionsStarted() {
+        return sessionsStarted.get();
+    }
+
+    public long getSessionsRejected() {
+        return sessionsRejected.get();
+    }
+
+    private void handleSession(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendStatus(exchange, 405, "Use POST with a PCM body");
+                return;
+            }
+            if (closing) {
+                sessionsRejected.incrementAndGet();
+                sendStatus(exchange, 503, "Server is shutting down");
+                return;
+            }
+            if (!sessionPermits.tryAcquire()) {
+                sessionsRejected.incrementAndGet();
+                sendStatus(exchange, 503, "Session limit reached");
+                return;
+            }
+
+            try {
+                SessionDecoder decoder;
+                try {
+                    decoder = decoderFactory.open();
+                } catch (IOException e) {
+                    sessionsRejected.incrementAndGet();
+                    sendStatus(exchange, 503, "No recognizer available: " + e.getMessage());
+                    return;
+                }
+
+                sessionsStarted.incrementAndGet();
+                try (decoder) {
+                    runSession(exchange, decoder);
+                }
+            } finally {
+                sessionPermits.release();
+            }
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String text = TranscriberMetrics.global().toText()
+                    + "# TYPE vosk_server_active_sessions gauge\n"
+                    + "vosk_server_active_sessions " + getActiveSessions() + "\n"
+                    + "# TYPE vosk_server_sessions_started_total counter\n"
+                    + "vosk_server_sessions_started_total " + getSessionsStarted() + "\n"
+                    + "# TYPE vosk_server_sessions_rejected_total counter\n"
+                    + "vosk_server_sessions_rejected_total " + getSessionsRejected() + "\n";
+            byte[] body = text.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private void runSession(HttpExchange exchange, SessionDecoder decoder) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+        // Length 0 means chunked, results are flushed as they come
+        exchange.sendResponseHeaders(200, 0);
+
+        OutputStream response = exchange.getResponseBody();
+        // Get the headers out now, the first result may be seconds away
+        response.flush();
+        // POST /transcribe?partials=false streams final results only
+        String query = exchange.getRequestURI().getRawQuery();
+        boolean partials = query == null || !query.contains("partials=false");
+        SessionDecoder.ResultSink sink = new SessionDecoder.ResultSink() {
+            @Override
+            public boolean wantsPartials() {
+                return partials;
+            }
+
+            @Override
+            public void onPartial(String text) throws IOException {
+                writeLine(response, "{\"partial\":" + JsonStrings.quote(text) + "}");
+            }
+
+            @Override
+            public void onFinal(String text) throws IOException {
+                writeLine(response, "{\"text\":" + JsonStrings.quote(text) + "}");
+            }
+        };
+
+        long startedAt = System.currentTimeMillis();
+        long maxBytes = limits.getMaxSessionAudioBytes();
+        long audioBytes = 0;
+        byte[] buffer = new byte[Transcriber.CHUNK_SIZE];
+        int carry = 0;
+
+        // The time limit is checked after every read, the deadline also catches a client that stops sending
+        SessionDeadline deadline = new SessionDeadline();
+        ScheduledFuture<?> deadlineTask = sessionDeadlines.schedule(deadline,
+                limits.getMaxSessionMillis() + SESSION_DEADLINE_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+        boolean expired;
+        try {
+            InputStream request = exchange.getRequestBody();
+            int bytesRead;
+            while ((bytesRead = request.read(buffer, carry, buffer.length - carry)) != -1) {
+                int available = carry + bytesRead;
+                // Only whole 16-bit samples go to the decoder
+                int usable = available - available % 2;
+                if (usable > 0) {
+                    decoder.accept(buffer, usable, sink);
+                    audioBytes += usable;
+                }
+                carry = available - usable;
+                if (carry > 0) {
+                    buffer[0] = buffer[usable];
+                }
+
+                if (audioBytes > maxBytes) {
+                    writeLine(response, "{\"error\":\"Session audio limit reached\"}");
+                    break;
+                }
+                if (System.currentTimeMillis() - startedAt > limits.getMaxSessionMillis()) {
+                    writeLine(response, "{\"error\":\"Session time limit reached\"}");
+                    break;
+                }
+            }
+            expired = deadline.finish();
+        } catch (IOException e) {
+            expired = deadline.finish();
+            if (!expired) {
+                throw e;
+            }
+        } finally {
+            deadlineTask.cancel(false);
+        }
+
+        if (expired) {
+            // The connection is gone, there is nowhere to send the final result
+            System.err.println("⚠️  Session cut off after " + (System.currentTimeMillis() - startedAt) + " ms");
+            return;
+        }
+        decoder.finish(sink);
+        response.close();
+    }
+
+    private static void writeLine(OutputStream response, String line) throws IOException {
+        response.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        response.flush();
+    }
+
+    private static void sendStatus(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = ("{\"error\":" + JsonStrings.quote(message) + "}\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    // Stops accepting sessions and gives running ones a grace period to finish. Those still
+    // running are then cut off, and the pool is closed only once they have let go of their
+    // recognizers.
+    @Override
+    public void close() {
+        closing = true;
+        boolean drained = awaitSessions();
+        httpServer.stop(0);
+        // Interrupting a session thread closes its connection and ends a blocked read
+        sessionExecutor.shutdownNow();
+        sessionDeadlines.shutdownNow();
+        if (!drained) {
+            drained = awaitSessions();
+        }
+
+        if (!drained) {
+            System.err.println("⚠️  " + getActiveSessions() + " session(s) did not stop, leaving their recognizers open");
+            return;
+        }
+        if (recognizerPool != null) {
+            recognizerPool.close();
+        }
+    }
+
+    // True once every session permit is back, they stay taken so nothing new starts
+    private boolean awaitSessions() {
+        try {
+            return sessionPermits.tryAcquire(limits.getMaxSessions(), SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Cuts off a session whose client stops sending. The JDK server reads the body from a
+    // blocking channel, interrupting the session thread closes it and ends the read.
+    private static class SessionDeadline implements Runnable {
+
+        private final Thread sessionThread = Thread.currentThread();
+
+        private boolean reading = true;
+
+        private boolean expired;
+
+        @Override
+        public synchronized void run() {
+            if (reading) {
+                expired = true;
+                sessionThread.interrupt();
+            }
+        }
+
+        // Called on the session thread once it stops reading, true if the deadline cut it off
+        private synchronized boolean finish() {
+            reading = false;
+            if (expired) {
+                // The pooled thread starts its next session clean
+                Thread.interrupted();
+            }
+            return expired;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.oxidesales.voskTranscriber;
+
+public class VadConfig {
+
+    // Analysis frame length
+    private final int frameMillis;
+
+    // RMS level (16-bit sample units) above which a frame is speech
+    private final double energyThreshold;
+
+    // Quieter frames still count as speech when they cross zero this often (fricatives)
+    private final double lowEnergyThreshold;
+    private final double zeroCrossingThreshold;
+
+    // Audio still passed after the last speech frame, lets the recognizer see the end of a word
+    // and enough trailing silence to close the utterance
+    private final int hangoverMillis;
+
+    // Audio replayed in front of a speech onset so the first word is not clipped
+    private final int preRollMillis;
+
+    public VadConfig(int frameMillis, double energyThreshold, double lowEnergyThreshold,
+                     double zeroCrossingThreshold, int hangoverMillis, int preRollMillis) {
+        if (frameMillis < 1) {
+            throw new IllegalArgumentException("Frame length must be at least 1 ms: " + frameMillis);
+        }
+        if (hangoverMillis < 0 || preRollMillis < 0) {
+            throw new IllegalArgumentException("VAD durations must not be negative");
+        }
+        this.frameMillis = frameMillis;
+        this.energyThreshold = energyThreshold;
+        this.lowEnergyThreshold = lowEnergyThreshold;
+        this.zeroCrossingThreshold = zeroCrossingThreshold;
+        this.hangoverMillis = hangoverMillis;
+        this.preRollMillis = preRollMillis;
+    }
+
+    public static VadConfig defaults() {
+        return new VadConfig(20, 400, 120, 0.25, 800, 300);
+    }
+
+    public int getFrameMillis() {
+        return frameMillis;
+    }
+
+    public double getEnergyThreshold() {
+        return energyThreshold;
+    }
+
+    public double getLowEnergyThreshold() {
+        return lowEnergyThreshold;
+    }
+
+    public double getZeroCrossingThreshold() {
+        return zeroCrossingThreshold;
+    }
+
+    public int getHangoverMillis() {
+        return hangoverMillis;
+    }
+
+    public int getPreRollMillis() {
+        return preRollMillis;
+    }
+
+    public int getFrameBytes() {
+        return Transcriber.BYTES_PER_SECOND * frameMillis / 1000;
+    }
+
+    public int getHangoverFrames() {
+        return (hangoverMillis + frameMillis - 1) / frameMillis;
+    }
+
+    public int getPreRollFrames() {
+        return (preRollMillis + frameMillis - 1) / frameMillis;
+    }
+
+    // Every parameter, e.g. as part of a transcript cache key
+    @Override
+    public String toString() {
+        return "frame=" + frameMillis + "ms energy=" + energyThreshold + " low=" + lowEnergyThreshold
+                + " zcr=" + zeroCrossingThreshold + " hangover=" + hangoverMillis + "ms preroll=" + preRollMillis + "ms";
+    }
+}
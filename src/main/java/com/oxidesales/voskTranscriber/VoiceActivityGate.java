@@ -0,0 +1,227 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.Arrays;
+
+// Energy and zero-crossing voice activity gate for 16-bit little-endian mono PCM.
+// Silent frames are held back instead of being fed to the recognizer; the last few are
+// replayed as padding when speech starts again. One gate per stream, not thread-safe.
+public class VoiceActivityGate {
+
+    private final VadConfig config;
+
+    private final int frameBytes;
+
+    private final int hangoverFrames;
+
+    // Incomplete frame left over from the previous chunk
+    private final byte[] carry;
+    private int carryLength;
+
+    // Most recent skipped frames, replayed in front of a speech onset
+    private final byte[] preRoll;
+    private final int preRollCapacity;
+    private int preRollHead;
+    private int preRollCount;
+
+    private byte[] output = new byte[0];
+
+    private int hangoverRemaining;
+
+    private boolean passing;
+
+    private long totalBytes;
+    private long forwardedBytes;
+    private long sourcePosition;
+
+    // Where forwarding resumed after a skip, maps gated positions back to the source
+    private long[] resumeGated = new long[16];
+    private long[] resumeSource = new long[16];
+    private int resumeCount;
+
+    public VoiceActivityGate(VadConfig config) {
+        this.config = config;
+        this.frameBytes = config.getFrameBytes();
+        this.hangoverFrames = config.getHangoverFrames();
+        this.carry = new byte[frameBytes];
+        this.preRollCapacity = config.getPreRollFrames();
+        this.preRoll = new byte[preRollCapacity * frameBytes];
+    }
+
+    // Returns how many bytes of output() should go to the recognizer, may be 0
+    public int process(byte[] data, int length) {
+        ensureOutputCapacity(frameBytes + length + preRoll.length);
+        totalBytes += length;
+
+        int out = 0;
+        int offset = 0;
+
+        if (carryLength > 0) {
+            int take = Math.min(frameBytes - carryLength, length);
+            System.arraycopy(data, 0, carry, carryLength, take);
+            carryLength += take;
+            offset = take;
+            if (carryLength < frameBytes) {
+                return 0;
+            }
+            out = processFrame(carry, 0, out);
+            carryLength = 0;
+        }
+
+        while (length - offset >= frameBytes) {
+            out = processFrame(data, offset, out);
+            offset += frameBytes;
+        }
+
+        if (offset < length) {
+            carryLength = length - offset;
+            System.arraycopy(data, offset, carry, 0, carryLength);
+        }
+        return out;
+    }
+
+    // End of stream: a trailing partial frame goes through only while speech is open
+    public int flush() {
+        int out = 0;
+        if (carryLength > 0 && passing) {
+            ensureOutputCapacity(carryLength);
+            System.arraycopy(carry, 0, output, 0, carryLength);
+            out = carryLength;
+            forwardedBytes += carryLength;
+        }
+        sourcePosition += carryLength;
+        carryLength = 0;
+        return out;
+    }
+
+    public byte[] output() {
+        return output;
+    }
+
+    private int processFrame(byte[] source, int offset, int out) {
+        if (isSpeech(source, offset)) {
+            hangoverRemaining = hangoverFrames;
+        } else if (hangoverRemaining > 0) {
+            hangoverRemaining--;
+        } else {
+            passing = false;
+            storePreRoll(source, offset);
+            sourcePosition += frameBytes;
+            return out;
+        }
+
+        if (!passing) {
+            // Pre-roll frames directly precede this one in the source
+            recordResume(forwardedBytes, sourcePosition - (long) preRollCount * frameBytes);
+            out = drainPreRoll(out);
+            passing = true;
+        }
+
+        System.arraycopy(source, offset, output, out, frameBytes);
+        forwardedBytes += frameBytes;
+        sourcePosition += frameBytes;
+        return out + frameBytes;
+    }
+
+    private boolean isSpeech(byte[] frame, int offset) {
+        long sumOfSquares = 0;
+        int zeroCrossings = 0;
+        int previous = 0;
+        int samples = frameBytes / 2;
+
+        for (int i = 0; i < samples; i++) {
+            int index = offset + i * 2;
+            int sample = (short) ((frame[index] & 0xff) | (frame[index + 1] << 8));
+            sumOfSquares += (long) sample * sample;
+            if (i > 0 && (sample ^ previous) < 0) {
+                zeroCrossings++;
+            }
+            previous = sample;
+        }
+
+        double rms = Math.sqrt(sumOfSquares / (double) samples);
+        if (rms >= config.getEnergyThreshold()) {
+            return true;
+        }
+        double zeroCrossingRate = zeroCrossings / (double) Math.max(1, samples - 1);
+        return rms >= config.getLowEnergyThreshold() && zeroCrossingRate >= config.getZeroCrossingThreshold();
+    }
+
+    private void storePreRoll(byte[] source, int offset) {
+        if (preRollCapacity == 0) {
+            return;
+        }
+        int slot = (preRollHead + preRollCount) % preRollCapacity;
+        System.arraycopy(source, offset, preRoll, slot * frameBytes, frameBytes);
+        if (preRollCount < preRollCapacity) {
+            preRollCount++;
+        } else {
+            preRollHead = (preRollHead + 1) % preRollCapacity;
+        }
+    }
+
+    private int drainPreRoll(int out) {
+        for (int i = 0; i < preRollCount; i++) {
+            int slot = (preRollHead + i) % preRollCapacity;
+            System.arraycopy(preRoll, slot * frameBytes, output, out, frameBytes);
+            out += frameBytes;
+        }
+        forwardedBytes += (long) preRollCount * frameBytes;
+        preRollHead = 0;
+        preRollCount = 0;
+        return out;
+    }
+
+    private void recordResume(long gated, long source) {
+        if (resumeCount == resumeGated.length) {
+            resumeGated = Arrays.copyOf(resumeGated, resumeCount * 2);
+            resumeSource = Arrays.copyOf(resumeSource, resumeCount * 2);
+        }
+        resumeGated[resumeCount] = gated;
+        resumeSource[resumeCount] = source;
+        resumeCount++;
+    }
+
+    // Recognizer timestamps count only forwarded audio, this maps them back to the source
+    public double toSourceSeconds(double gatedSeconds) {
+        long gated = (long) (gatedSeconds * Transcriber.BYTES_PER_SECOND);
+        int low = 0;
+        int high = resumeCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (resumeGated[middle] <= gated) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (found < 0) {
+            return gatedSeconds;
+        }
+        long source = resumeSource[found] + (gated - resumeGated[found]);
+        return source / (double) Transcriber.BYTES_PER_SECOND;
+    }
+
+    private void ensureOutputCapacity(int needed) {
+        if (output.length < needed) {
+            output = new byte[needed];
+        }
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getForwardedBytes() {
+        return forwardedBytes;
+    }
+
+    public long getSkippedBytes() {
+        return Math.max(0, totalBytes - forwardedBytes);
+    }
+
+    public double getSkippedFraction() {
+        return totalBytes > 0 ? getSkippedBytes() / (double) totalBytes : 0;
+    }
+}
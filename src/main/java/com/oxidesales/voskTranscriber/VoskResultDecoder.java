@@ -0,0 +1,462 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Pulls "text"/"partial" and the word arrays out of a Vosk result without building a
+// JSON tree. All buffers are reused between calls, so one decoder belongs to one thread.
+public class VoskResultDecoder {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16
+    };
+
+    private final StringBuilder text = new StringBuilder(256);
+
+    private boolean hasText;
+
+    private boolean partial;
+
+    // Words of the last result, word characters are packed into one shared buffer
+    private int wordCount;
+    private char[] wordChars = new char[512];
+    private int wordCharsUsed;
+    private int[] wordOffsets = new int[32];
+    private int[] wordLengths = new int[32];
+    private float[] wordStarts = new float[32];
+    private float[] wordEnds = new float[32];
+    private float[] wordConfidences = new float[32];
+
+    private String json;
+
+    private int position;
+
+    public void decode(String jsonResult) throws IOException {
+        json = jsonResult;
+        position = 0;
+        text.setLength(0);
+        hasText = false;
+        partial = false;
+        wordCount = 0;
+        wordCharsUsed = 0;
+
+        try {
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return;
+            }
+
+            while (true) {
+                skipWhitespace();
+                expect('"');
+                int keyStart = position;
+                int keyEnd = skipStringBody();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+
+                boolean partialKey = keyIs(keyStart, keyEnd, "partial");
+                if (partialKey || keyIs(keyStart, keyEnd, "text")) {
+                    partial = partialKey;
+                    hasText = true;
+                    expect('"');
+                    readString(text);
+                } else if ((keyIs(keyStart, keyEnd, "result") || keyIs(keyStart, keyEnd, "partial_result"))
+                        && peek() == '[') {
+                    readWords();
+                } else {
+                    skipValue();
+                }
+
+                skipWhitespace();
+                char next = next();
+                if (next == '}') {
+                    break;
+                }
+                if (next != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        } catch (StringIndexOutOfBoundsException e) {
+            throw error("Unexpected end of result");
+        } finally {
+            json = null;
+        }
+
+        trimText();
+    }
+
+    // True when the result carried a "text" or "partial" field
+    public boolean hasText() {
+        return hasText;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    // Trimmed text, only valid until the next decode
+    public CharSequence text() {
+        return text;
+    }
+
+    public String textString() {
+        return text.toString();
+    }
+
+    public boolean isTextEmpty() {
+        return text.length() == 0;
+    }
+
+    public boolean textEquals(CharSequence other) {
+        if (other.length() != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int wordCount() {
+        return wordCount;
+    }
+
+    public String word(int index) {
+        return new String(wordChars, wordOffsets[index], wordLengths[index]);
+    }
+
+    // Word characters without allocating, see wordOffset/wordLength
+    public char[] wordChars() {
+        return wordChars;
+    }
+
+    public int wordOffset(int index) {
+        return wordOffsets[index];
+    }
+
+    public int wordLength(int index) {
+        return wordLengths[index];
+    }
+
+    public float wordStart(int index) {
+        return wordStarts[index];
+    }
+
+    public float wordEnd(int index) {
+        return wordEnds[index];
+    }
+
+    // Partial word results carry no confidence, reported as 1
+    public float wordConfidence(int index) {
+        return wordConfidences[index];
+    }
+
+    private void readWords() throws IOException {
+        expect('[');
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return;
+        }
+
+        while (true) {
+            skipWhitespace();
+            readWord();
+            skipWhitespace();
+            char next = next();
+            if (next == ']') {
+                return;
+            }
+            if (next != ',') {
+                throw error("Expected ',' or ']'");
+            }
+        }
+    }
+
+    private void readWord() throws IOException {
+        ensureWordCapacity(wordCount + 1);
+        int index = wordCount;
+        wordOffsets[index] = wordCharsUsed;
+        wordLengths[index] = 0;
+        wordStarts[index] = 0;
+        wordEnds[index] = 0;
+        wordConfidences[index] = 1;
+
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            wordCount++;
+            return;
+        }
+
+        while (true) {
+            skipWhitespace();
+            expect('"');
+            int keyStart = position;
+            int keyEnd = skipStringBody();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+
+            if (keyIs(keyStart, keyEnd, "word")) {
+                expect('"');
+                readWordChars(index);
+            } else if (keyIs(keyStart, keyEnd, "start")) {
+                wordStarts[index] = (float) readNumber();
+            } else if (keyIs(keyStart, keyEnd, "end")) {
+                wordEnds[index] = (float) readNumber();
+            } else if (keyIs(keyStart, keyEnd, "conf")) {
+                wordConfidences[index] = (float) readNumber();
+            } else {
+                skipValue();
+            }
+
+            skipWhitespace();
+            char next = next();
+            if (next == '}') {
+                break;
+            }
+            if (next != ',') {
+                throw error("Expected ',' or '}'");
+            }
+        }
+        wordCount++;
+    }
+
+    private void readWordChars(int index) throws IOException {
+        int start = wordCharsUsed;
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                c = readEscape();
+            }
+            if (wordCharsUsed == wordChars.length) {
+                char[] grown = new char[wordChars.length * 2];
+                System.arraycopy(wordChars, 0, grown, 0, wordCharsUsed);
+                wordChars = grown;
+            }
+            wordChars[wordCharsUsed++] = c;
+        }
+        wordOffsets[index] = start;
+        wordLengths[index] = wordCharsUsed - start;
+    }
+
+    private void ensureWordCapacity(int needed) {
+        if (needed <= wordOffsets.length) {
+            return;
+        }
+        int size = Math.max(needed, wordOffsets.length * 2);
+        wordOffsets = Arrays.copyOf(wordOffsets, size);
+        wordLengths = Arrays.copyOf(wordLengths, size);
+        wordStarts = Arrays.copyOf(wordStarts, size);
+        wordEnds = Arrays.copyOf(wordEnds, size);
+        wordConfidences = Arrays.copyOf(wordConfidences, size);
+    }
+
+    private void readString(StringBuilder out) throws IOException {
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return;
+            }
+            out.append(c == '\\' ? readEscape() : c);
+        }
+    }
+
+    private char readEscape() throws IOException {
+        char c = next();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) {
+                        throw error("Bad unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw error("Bad escape");
+        }
+    }
+
+    // Skips to the closing quote, returns the position of that quote
+    private int skipStringBody() throws IOException {
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return position - 1;
+            }
+            if (c == '\\') {
+                readEscape();
+            }
+        }
+    }
+
+    private double readNumber() throws IOException {
+        boolean negative = false;
+        if (peek() == '-') {
+            negative = true;
+            position++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+
+        char c;
+        while (isDigit(c = peek())) {
+            any = true;
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exponent++;
+            }
+            position++;
+        }
+        if (peek() == '.') {
+            position++;
+            while (isDigit(c = peek())) {
+                any = true;
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                }
+                position++;
+            }
+        }
+        if (!any) {
+            throw error("Expected a number");
+        }
+        if (peek() == 'e' || peek() == 'E') {
+            position++;
+            boolean negativeExponent = false;
+            if (peek() == '-' || peek() == '+') {
+                negativeExponent = next() == '-';
+            }
+            int value = 0;
+            while (isDigit(c = peek())) {
+                value = Math.min(value * 10 + (c - '0'), 1000);
+                position++;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        double result = mantissa;
+        if (exponent != 0) {
+            int abs = Math.abs(exponent);
+            double scale = abs < POWERS_OF_TEN.length ? POWERS_OF_TEN[abs] : Math.pow(10, abs);
+            result = exponent < 0 ? result / scale : result * scale;
+        }
+        return negative ? -result : result;
+    }
+
+    private void skipValue() throws IOException {
+        char c = peek();
+        if (c == '"') {
+            position++;
+            skipStringBody();
+        } else if (c == '{' || c == '[') {
+            skipContainer();
+        } else if (c == '-' || isDigit(c)) {
+            readNumber();
+        } else if (json.startsWith("true", position)) {
+            position += 4;
+        } else if (json.startsWith("false", position)) {
+            position += 5;
+        } else if (json.startsWith("null", position)) {
+            position += 4;
+        } else {
+            throw error("Unexpected value");
+        }
+    }
+
+    private void skipContainer() throws IOException {
+        int depth = 0;
+        do {
+            char c = next();
+            if (c == '"') {
+                skipStringBody();
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    private boolean keyIs(int start, int end, String key) {
+        return end - start == key.length() && json.regionMatches(start, key, 0, key.length());
+    }
+
+    private void trimText() {
+        int end = text.length();
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        text.setLength(end);
+        int start = 0;
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        if (start > 0) {
+            text.delete(0, start);
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (next() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+    }
+
+    private char peek() {
+        return position < json.length() ? json.charAt(position) : '\0';
+    }
+
+    private char next() {
+        return json.charAt(position++);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at offset " + position + " of Vosk result");
+    }
+}
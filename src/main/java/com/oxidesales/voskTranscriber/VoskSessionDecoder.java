@@ -0,0 +1,86 @@
+package com.oxidesales.voskTranscriber;
+
+import org.vosk.Recognizer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class VoskSessionDecoder implements SessionDecoder {
+
+    private final PooledRecognizer pooledRecognizer;
+
+    private final VoskResultDecoder resultDecoder = new VoskResultDecoder();
+
+    private final TranscriberMetrics metrics = TranscriberMetrics.global();
+
+    private String lastPartial = "";
+
+    private String lastPartialJson = "";
+
+    private VoskSessionDecoder(PooledRecognizer pooledRecognizer) {
+        this.pooledRecognizer = pooledRecognizer;
+    }
+
+    // Sessions share the pool's model, each one holds its own recognizer while open
+    public static SessionDecoderFactory factory(RecognizerPool recognizerPool, long waitMillis) {
+        return () -> new VoskSessionDecoder(
+                recognizerPool.borrow(RecognizerKey.dictation(), waitMillis, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public void accept(byte[] audioData, int length, ResultSink sink) throws IOException {
+        Recognizer recognizer = pooledRecognizer.getRecognizer();
+        long audioInNanos = System.nanoTime();
+        boolean isFinal = recognizer.acceptWaveForm(audioData, length);
+        metrics.recordChunk(length, System.nanoTime() - audioInNanos);
+
+        if (isFinal) {
+            if (emitFinal(recognizer.getResult(), sink)) {
+                metrics.recordFinal(audioInNanos);
+            }
+        } else if (sink.wantsPartials()) {
+            String partialJson = recognizer.getPartialResult();
+            // Same JSON as last time, same partial: nothing to parse or send
+            if (partialJson.equals(lastPartialJson)) {
+                return;
+            }
+            lastPartialJson = partialJson;
+            decode(partialJson);
+            if (!resultDecoder.isTextEmpty() && !resultDecoder.textEquals(lastPartial)) {
+                lastPartial = resultDecoder.textString();
+                sink.onPartial(lastPartial);
+                metrics.recordPartial(audioInNanos);
+            }
+        }
+    }
+
+    @Override
+    public void finish(ResultSink sink) throws IOException {
+        emitFinal(pooledRecognizer.getRecognizer().getFinalResult(), sink);
+    }
+
+    private boolean emitFinal(String result, ResultSink sink) throws IOException {
+        decode(result);
+        lastPartial = "";
+        lastPartialJson = "";
+        if (resultDecoder.isTextEmpty()) {
+            return false;
+        }
+        sink.onFinal(resultDecoder.textString());
+        return true;
+    }
+
+    private void decode(String result) throws IOException {
+        try {
+            resultDecoder.decode(result);
+        } catch (IOException e) {
+            metrics.recordParseError();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        pooledRecognizer.close();
+    }
+}
@@ -0,0 +1,177 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Minimal RIFF/WAVE reader: parses the header itself and exposes the data chunk
+// as a memory-mapped stream, without going through javax.sound.
+public class WavFile {
+
+    public static final int FORMAT_PCM = 1;
+    public static final int FORMAT_IEEE_FLOAT = 3;
+    private static final int FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private final Path path;
+    private final int formatTag;
+    private final int channels;
+    private final int sampleRate;
+    private final int bitsPerSample;
+    private final int blockAlign;
+    private final long dataOffset;
+    private final long dataLength;
+
+    private WavFile(Path path, int formatTag, int channels, int sampleRate, int bitsPerSample, int blockAlign,
+                    long dataOffset, long dataLength) {
+        this.path = path;
+        this.formatTag = formatTag;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.bitsPerSample = bitsPerSample;
+        this.blockAlign = blockAlign;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+    }
+
+    public static WavFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != 0x46464952 || header.getInt(8) != 0x45564157) {
+                throw new IOException("Not a RIFF/WAVE file: " + path);
+            }
+
+            int formatTag = -1;
+            int channels = 0;
+            int sampleRate = 0;
+            int bitsPerSample = 0;
+            int blockAlign = 0;
+
+            ByteBuffer chunkHeader = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            long position = 12;
+            while (position + 8 <= fileSize) {
+                chunkHeader.clear();
+                readFully(channel, chunkHeader, position);
+                int id = chunkHeader.getInt(0);
+                long size = chunkHeader.getInt(4) & 0xFFFFFFFFL;
+                long body = position + 8;
+
+                if (id == 0x20746d66) { // "fmt "
+                    if (size < 16) {
+                        throw new IOException("WAVE fmt chunk too short: " + path);
+                    }
+                    ByteBuffer format = ByteBuffer.allocate((int) Math.min(size, 40)).order(ByteOrder.LITTLE_ENDIAN);
+                    readFully(channel, format, body);
+                    formatTag = format.getShort(0) & 0xFFFF;
+                    channels = format.getShort(2) & 0xFFFF;
+                    sampleRate = format.getInt(4);
+                    blockAlign = format.getShort(12) & 0xFFFF;
+                    bitsPerSample = format.getShort(14) & 0xFFFF;
+                    if (formatTag == FORMAT_EXTENSIBLE && size >= 26) {
+                        // First two bytes of the sub-format GUID carry the real format tag
+                        formatTag = format.getShort(24) & 0xFFFF;
+                    }
+                } else if (id == 0x61746164) { // "data"
+                    if (formatTag < 0) {
+                        throw new IOException("WAVE data chunk before fmt chunk: " + path);
+                    }
+                    // Streaming writers leave the size at 0 or 0xFFFFFFFF, take the rest of the file then
+                    long available = fileSize - body;
+                    long length = size == 0 || size > available ? available : size;
+                    length -= length % Math.max(1, blockAlign);
+                    return new WavFile(path, formatTag, channels, sampleRate, bitsPerSample, blockAlign, body, length);
+                }
+
+                // Chunks are padded to an even size
+                position = body + size + (size & 1);
+            }
+            throw new IOException("No data chunk in WAVE file: " + path);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Truncated WAVE header");
+            }
+        }
+    }
+
+    public boolean isSupportedEncoding() {
+        if (channels < 1 || sampleRate < 1 || blockAlign != channels * (bitsPerSample / 8)) {
+            return false;
+        }
+        if (formatTag == FORMAT_PCM) {
+            return bitsPerSample == 8 || bitsPerSample == 16 || bitsPerSample == 24 || bitsPerSample == 32;
+        }
+        return formatTag == FORMAT_IEEE_FLOAT && bitsPerSample == 32;
+    }
+
+    // Already what the recognizer takes, the data chunk can be fed as is
+    public boolean isTranscriberFormat() {
+        return formatTag == FORMAT_PCM
+                && channels == Transcriber.CHANNELS
+                && sampleRate == Transcriber.SAMPLE_RATE
+                && bitsPerSample == Transcriber.SAMPLE_SIZE_BITS;
+    }
+
+    // Raw data chunk in the file's own format
+    public MappedPcmInputStream openData() throws IOException {
+        return new MappedPcmInputStream(FileChannel.open(path, StandardOpenOption.READ), dataOffset, dataLength);
+    }
+
+    // 16 kHz mono 16-bit little-endian PCM, converted while streaming when needed
+    public InputStream openPcmStream() throws IOException {
+        if (!isSupportedEncoding()) {
+            throw new IOException("Unsupported WAVE encoding " + formatTag + "/" + bitsPerSample + " bit: " + path);
+        }
+        MappedPcmInputStream data = openData();
+        if (isTranscriberFormat()) {
+            return data;
+        }
+        return new PcmConvertingInputStream(data, formatTag == FORMAT_IEEE_FLOAT, bitsPerSample, channels, sampleRate);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getFormatTag() {
+        return formatTag;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getBitsPerSample() {
+        return bitsPerSample;
+    }
+
+    public int getBlockAlign() {
+        return blockAlign;
+    }
+
+    public long getDataOffset() {
+        return dataOffset;
+    }
+
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    public double getDurationSeconds() {
+        return dataLength / (double) blockAlign / sampleRate;
+    }
+}
@@ -3,13 +3,18 @@ package com.oxidesales.voskTranscriber;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.util.concurrent.CompletableFuture;
 
 public class WindowAppMain {
     private JTextArea textArea;
     private JButton transcribeButton;
-    private final Transcriber transcriber;
+    // Loads in the background, the window and the microphone do not wait for it
+    private final CompletableFuture<Transcriber> transcriber;
 
-    public WindowAppMain(Transcriber transcriber) {
+    // Results closer together than this are appended in one go
+    private static final long UI_BATCH_MILLIS = 100;
+
+    public WindowAppMain(CompletableFuture<Transcriber> transcriber) {
         this.transcriber = transcriber;
     }
 
@@ -27,9 +32,14 @@ public class WindowAppMain {
         }
         String modelPath = args[0];
 
-        Transcriber transcriber = new Transcriber(modelPath);
+        CompletableFuture<Transcriber> transcriber = Transcriber.loadInBackground(modelPath);
 
-        Runtime.getRuntime().addShutdownHook(new Thread(transcriber::cleanupRealtime));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Transcriber loaded = transcriber.getNow(null);
+            if (loaded != null) {
+                loaded.cleanupRealtime();
+            }
+        }));
 
         SwingUtilities.invokeLater(() -> new WindowAppMain(transcriber).createAndShowGUI());
     }
@@ -57,20 +67,32 @@ public class WindowAppMain {
 
         frame.getContentPane().add(panel);
         frame.setVisible(true);
+
+        // One UI update per batch of results, not one per utterance
+        transcriber.thenAccept(loaded -> loaded.addTranscriptionBatchListener(events -> {
+            StringBuilder text = new StringBuilder();
+            for (TranscriptionEvent event : events) {
+                text.append(event.getText()).append('\n');
+            }
+            SwingUtilities.invokeLater(() -> textArea.append(text.toString()));
+        }, UI_BATCH_MILLIS));
     }
 
     private void onTranscribeClicked(ActionEvent event) {
         transcribeButton.setEnabled(false);
-        textArea.setText("Listening...");
+        textArea.setText(transcriber.isDone() ? "Listening...\n" : "Listening, the model is still loading...\n");
 
         // Run transcription in background to avoid UI freezing
         new Thread(() -> {
             try {
                 try {
-                    transcriber.setTranscriptionListener(text -> {
-                        SwingUtilities.invokeLater(() -> textArea.append(text + "\n"));
-                    });
-                    transcriber.startRealtime();
+                    // Speech before the model is ready is buffered and caught up on
+                    MicrophoneCapture capture = MicrophoneCapture.open(ChunkProfile.BALANCED,
+                            Transcriber.STARTUP_BUFFER_SECONDS, OverflowPolicy.DROP_OLDEST);
+                    Transcriber loaded = transcriber.join();
+                    // The window shows final results only, so no partials are fetched at all
+                    loaded.setConsolePartials(false);
+                    loaded.startRealtime(capture);
                 } catch (Exception e) {
                     System.err.println("❌ Application error: " + e.getMessage());
                     e.printStackTrace();
@@ -0,0 +1,183 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.util.Locale;
+
+// Word timings and confidences as parallel primitive columns, about 16 bytes a word instead
+// of a JSON object each. Times are milliseconds from the start of the batch's source stream,
+// stored relative to the batch's first word so they fit an int.
+public class WordBatch {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final WordDictionary dictionary;
+
+    private final int[] wordIds;
+
+    private final int[] startMillis;
+
+    private final int[] endMillis;
+
+    private final float[] confidences;
+
+    private long baseMillis = -1;
+
+    // Which stream of a shared word file the words come from, their times count from its start
+    private int sourceId;
+
+    private int size;
+
+    public WordBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public WordBatch(int capacity) {
+        this(new WordDictionary(), capacity);
+    }
+
+    WordBatch(WordDictionary dictionary, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Batch capacity must be at least 1");
+        }
+        this.dictionary = dictionary;
+        this.wordIds = new int[capacity];
+        this.startMillis = new int[capacity];
+        this.endMillis = new int[capacity];
+        this.confidences = new float[capacity];
+    }
+
+    public boolean add(String word, double startSeconds, double endSeconds, float confidence) {
+        return add(word.toCharArray(), 0, word.length(), startSeconds, endSeconds, confidence);
+    }
+
+    // False when the batch is full (or the word is too far from the first one), start a new batch
+    public boolean add(char[] chars, int offset, int length, double startSeconds, double endSeconds,
+                       float confidence) {
+        if (size == wordIds.length) {
+            return false;
+        }
+        long start = Math.round(startSeconds * 1000);
+        long end = Math.max(start, Math.round(endSeconds * 1000));
+        if (baseMillis < 0) {
+            baseMillis = start;
+        }
+        if (start < baseMillis || end - baseMillis > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        wordIds[size] = dictionary.intern(chars, offset, length);
+        startMillis[size] = (int) (start - baseMillis);
+        endMillis[size] = (int) (end - baseMillis);
+        confidences[size] = confidence;
+        size++;
+        return true;
+    }
+
+    // Used by WordBatchReader, ids refer to this batch's dictionary
+    void addEncoded(int wordId, long start, long end, float confidence) {
+        if (baseMillis < 0) {
+            baseMillis = start;
+        }
+        wordIds[size] = wordId;
+        startMillis[size] = (int) (start - baseMillis);
+        endMillis[size] = (int) (end - baseMillis);
+        confidences[size] = confidence;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return wordIds.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == wordIds.length;
+    }
+
+    public int getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(int sourceId) {
+        if (sourceId < 0) {
+            throw new IllegalArgumentException("Source id must not be negative: " + sourceId);
+        }
+        this.sourceId = sourceId;
+    }
+
+    public WordDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public int wordId(int index) {
+        checkIndex(index);
+        return wordIds[index];
+    }
+
+    public String word(int index) {
+        return dictionary.word(wordId(index));
+    }
+
+    public long startMillis(int index) {
+        checkIndex(index);
+        return baseMillis + startMillis[index];
+    }
+
+    public long endMillis(int index) {
+        checkIndex(index);
+        return baseMillis + endMillis[index];
+    }
+
+    public double startSeconds(int index) {
+        return startMillis(index) / 1000.0;
+    }
+
+    public double endSeconds(int index) {
+        return endMillis(index) / 1000.0;
+    }
+
+    public float confidence(int index) {
+        checkIndex(index);
+        return confidences[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Word " + index + " of " + size);
+        }
+    }
+
+    // For debugging, the binary form is what gets stored
+    public void writeJson(Appendable out) throws IOException {
+        out.append("{\"source\":").append(Integer.toString(sourceId)).append(",\"words\":[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append("{\"word\":").append(JsonStrings.quote(word(i)))
+                    .append(",\"start\":").append(String.format(Locale.ROOT, "%.3f", startSeconds(i)))
+                    .append(",\"end\":").append(String.format(Locale.ROOT, "%.3f", endSeconds(i)))
+                    .append(",\"conf\":").append(String.format(Locale.ROOT, "%.4f", confidence(i)))
+                    .append('}');
+        }
+        out.append("]}");
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder(size * 64);
+        try {
+            writeJson(json);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new IllegalStateException(e);
+        }
+        return json.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+// Reads what WordBatchWriter wrote, one batch per call
+public class WordBatchReader implements AutoCloseable {
+
+    private final DataInputStream in;
+
+    public WordBatchReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+    }
+
+    // Null at the end of the stream
+    public WordBatch next() throws IOException {
+        int magic;
+        try {
+            magic = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (magic != WordBatchWriter.MAGIC && magic != WordBatchWriter.MAGIC_WITHOUT_SOURCE) {
+            throw new IOException("Not a word batch, bad magic 0x" + Integer.toHexString(magic));
+        }
+
+        int sourceId = magic == WordBatchWriter.MAGIC ? readCount() : 0;
+        int size = readCount();
+        long previousStart = readVarLong();
+
+        int dictionarySize = readCount();
+        WordDictionary dictionary = new WordDictionary();
+        for (int id = 0; id < dictionarySize; id++) {
+            byte[] word = new byte[readCount()];
+            in.readFully(word);
+            dictionary.intern(new String(word, StandardCharsets.UTF_8));
+        }
+
+        int[] wordIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            wordIds[i] = readCount();
+            if (wordIds[i] >= dictionarySize) {
+                throw new IOException("Word id " + wordIds[i] + " outside the dictionary of " + dictionarySize);
+            }
+        }
+        long[] starts = new long[size];
+        for (int i = 0; i < size; i++) {
+            long zigzag = readVarLong();
+            previousStart += (zigzag >>> 1) ^ -(zigzag & 1);
+            starts[i] = previousStart;
+        }
+        long[] durations = new long[size];
+        for (int i = 0; i < size; i++) {
+            durations[i] = readVarLong();
+        }
+
+        WordBatch batch = new WordBatch(dictionary, Math.max(1, size));
+        batch.setSourceId(sourceId);
+        for (int i = 0; i < size; i++) {
+            float confidence = in.readUnsignedShort() / 65535f;
+            batch.addEncoded(wordIds[i], starts[i], starts[i] + durations[i], confidence);
+        }
+        return batch;
+    }
+
+    private int readCount() throws IOException {
+        long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Bad count in word batch: " + value);
+        }
+        return (int) value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in word batch");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,82 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Binary word batches, back to back in one stream. Per batch:
+//   int magic "VWB2" | varint source id | varint words | varlong first start ms
+//   varint dictionary size | per entry: varint UTF-8 length, bytes
+//   per word: varint word id
+//   per word: zigzag varint start delta from the previous word (ms)
+//   per word: varint duration (ms)
+//   per word: unsigned 16-bit confidence, 0..65535 for 0..1
+// Typical words take 5-6 bytes before the dictionary. "VWB1" batches have no source id, they
+// are read as source 0. Writes are synchronized, several streams can share one writer.
+public class WordBatchWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x56574232;
+
+    static final int MAGIC_WITHOUT_SOURCE = 0x56574231;
+
+    private final DataOutputStream out;
+
+    public WordBatchWriter(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+    }
+
+    public synchronized void write(WordBatch batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int size = batch.size();
+        out.writeInt(MAGIC);
+        writeVarLong(batch.getSourceId());
+        writeVarLong(size);
+        writeVarLong(batch.startMillis(0));
+
+        WordDictionary dictionary = batch.getDictionary();
+        writeVarLong(dictionary.size());
+        for (int id = 0; id < dictionary.size(); id++) {
+            byte[] word = dictionary.word(id).getBytes(StandardCharsets.UTF_8);
+            writeVarLong(word.length);
+            out.write(word);
+        }
+
+        for (int i = 0; i < size; i++) {
+            writeVarLong(batch.wordId(i));
+        }
+        long previousStart = batch.startMillis(0);
+        for (int i = 0; i < size; i++) {
+            long delta = batch.startMillis(i) - previousStart;
+            writeVarLong((delta << 1) ^ (delta >> 63));
+            previousStart = batch.startMillis(i);
+        }
+        for (int i = 0; i < size; i++) {
+            writeVarLong(batch.endMillis(i) - batch.startMillis(i));
+        }
+        for (int i = 0; i < size; i++) {
+            float confidence = Math.max(0f, Math.min(1f, batch.confidence(i)));
+            out.writeShort(Math.round(confidence * 65535));
+        }
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.util.function.DoubleUnaryOperator;
+
+// Turns the word arrays of final results into WordBatches and hands each full batch on,
+// e.g. to WordBatchWriter::write. One collector per stream, it is not thread-safe; streams
+// sharing one writer tell their batches apart by source id.
+public class WordCollector {
+
+    public interface BatchSink {
+        void accept(WordBatch batch) throws IOException;
+    }
+
+    private final BatchSink batchSink;
+
+    private final int batchCapacity;
+
+    private final int sourceId;
+
+    private WordBatch current;
+
+    private long wordCount;
+
+    public WordCollector(BatchSink batchSink) {
+        this(batchSink, WordBatch.DEFAULT_CAPACITY);
+    }
+
+    public WordCollector(BatchSink batchSink, int batchCapacity) {
+        this(batchSink, batchCapacity, 0);
+    }
+
+    public WordCollector(BatchSink batchSink, int batchCapacity, int sourceId) {
+        this.batchSink = batchSink;
+        this.batchCapacity = batchCapacity;
+        this.sourceId = sourceId;
+        this.current = newBatch();
+    }
+
+    // Words of the result just decoded; toStreamSeconds maps recognizer time to stream time,
+    // e.g. undoing voice activity gating or adding a segment offset
+    public void collect(VoskResultDecoder resultDecoder, DoubleUnaryOperator toStreamSeconds) throws IOException {
+        char[] chars = resultDecoder.wordChars();
+        for (int i = 0; i < resultDecoder.wordCount(); i++) {
+            double start = toStreamSeconds.applyAsDouble(resultDecoder.wordStart(i));
+            double end = toStreamSeconds.applyAsDouble(resultDecoder.wordEnd(i));
+            float confidence = resultDecoder.wordConfidence(i);
+            int offset = resultDecoder.wordOffset(i);
+            int length = resultDecoder.wordLength(i);
+
+            if (!current.add(chars, offset, length, start, end, confidence)) {
+                emit();
+                current.add(chars, offset, length, start, end, confidence);
+            }
+            wordCount++;
+        }
+    }
+
+    // Hands on the partly filled batch, at the end of a file or session
+    public void flush() throws IOException {
+        if (!current.isEmpty()) {
+            emit();
+        }
+    }
+
+    private void emit() throws IOException {
+        WordBatch full = current;
+        current = newBatch();
+        batchSink.accept(full);
+    }
+
+    private WordBatch newBatch() {
+        WordBatch batch = new WordBatch(batchCapacity);
+        batch.setSourceId(sourceId);
+        return batch;
+    }
+
+    public int getSourceId() {
+        return sourceId;
+    }
+
+    public long getWordCount() {
+        return wordCount;
+    }
+}
@@ -0,0 +1,96 @@
+package com.oxidesales.voskTranscriber;
+
+import java.util.Arrays;
+
+// Interns words to dense int ids. Lookups hash the characters in place, so a word already
+// in the dictionary costs no allocation; open addressing keeps it to two arrays.
+public class WordDictionary {
+
+    private String[] words = new String[64];
+
+    // Slot -> id + 1, 0 marks an empty slot
+    private int[] slots = new int[128];
+
+    private int size;
+
+    public int intern(String word) {
+        return intern(word.toCharArray(), 0, word.length());
+    }
+
+    public int intern(char[] chars, int offset, int length) {
+        int mask = slots.length - 1;
+        int slot = hash(chars, offset, length) & mask;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (matches(words[id], chars, offset, length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = size++;
+        if (id == words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        words[id] = new String(chars, offset, length);
+        slots[slot] = id + 1;
+        // Keep the table at most half full
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    public String word(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No word with id " + id);
+        }
+        return words[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            String word = words[id];
+            int slot = hash(word) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    private static int hash(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[offset + i];
+        }
+        return spread(hash);
+    }
+
+    // Same value as the char[] version, String.hashCode uses the same polynomial
+    private static int hash(String word) {
+        return spread(word.hashCode());
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String word, char[] chars, int offset, int length) {
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,40 @@
+package com.oxidesales.voskTranscriber;
+
+// Word-level edit distance between two transcripts, relative to the reference length
+public class WordErrorRate {
+
+    private WordErrorRate() {
+    }
+
+    public static double compute(String reference, String hypothesis) {
+        String[] expected = split(reference);
+        String[] actual = split(hypothesis);
+        if (expected.length == 0) {
+            return actual.length == 0 ? 0 : 1;
+        }
+
+        int[] previous = new int[actual.length + 1];
+        int[] current = new int[actual.length + 1];
+        for (int j = 0; j <= actual.length; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= expected.length; i++) {
+            current[0] = i;
+            for (int j = 1; j <= actual.length; j++) {
+                int substitution = previous[j - 1] + (expected[i - 1].equals(actual[j - 1]) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[actual.length] / (double) expected.length;
+    }
+
+    private static String[] split(String text) {
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("\\s+");
+    }
+}
@@ -0,0 +1,144 @@
+package com.oxidesales.voskTranscriber;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Streaming XXH64, a non-cryptographic 64-bit hash that runs at memory speed. Used to
+// recognise content, not to defend against anyone crafting collisions.
+public class Xxh64 {
+
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private static final long MAP_WINDOW_BYTES = 256L * 1024 * 1024;
+
+    private final long seed;
+
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+
+    private long totalLength;
+
+    // Input that did not fill a whole 32-byte stripe yet
+    private final ByteBuffer pending = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+
+    public Xxh64(long seed) {
+        this.seed = seed;
+        this.v1 = seed + PRIME1 + PRIME2;
+        this.v2 = seed + PRIME2;
+        this.v3 = seed;
+        this.v4 = seed - PRIME1;
+    }
+
+    public static long hash(byte[] data, long seed) {
+        Xxh64 xxh = new Xxh64(seed);
+        xxh.update(ByteBuffer.wrap(data));
+        return xxh.digest();
+    }
+
+    public static long hash(String text, long seed) {
+        return hash(text.getBytes(StandardCharsets.UTF_8), seed);
+    }
+
+    // Hashes the whole file through memory-mapped windows, no copies into the heap
+    public static long hashFile(Path file, long seed) throws IOException {
+        Xxh64 xxh = new Xxh64(seed);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+                xxh.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAP_WINDOW_BYTES, size - position)));
+            }
+        }
+        return xxh.digest();
+    }
+
+    // Consumes the buffer's remaining bytes
+    public void update(ByteBuffer data) {
+        ByteOrder order = data.order();
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        totalLength += data.remaining();
+
+        if (pending.position() > 0) {
+            while (pending.hasRemaining() && data.hasRemaining()) {
+                pending.put(data.get());
+            }
+            if (pending.hasRemaining()) {
+                data.order(order);
+                return;
+            }
+            pending.flip();
+            stripe(pending);
+            pending.clear();
+        }
+
+        while (data.remaining() >= 32) {
+            stripe(data);
+        }
+        pending.put(data);
+        data.order(order);
+    }
+
+    private void stripe(ByteBuffer data) {
+        v1 = round(v1, data.getLong());
+        v2 = round(v2, data.getLong());
+        v3 = round(v3, data.getLong());
+        v4 = round(v4, data.getLong());
+    }
+
+    public long digest() {
+        long hash;
+        if (totalLength >= 32) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME5;
+        }
+        hash += totalLength;
+
+        ByteBuffer tail = pending.duplicate().order(ByteOrder.LITTLE_ENDIAN).flip();
+        while (tail.remaining() >= 8) {
+            hash ^= round(0, tail.getLong());
+            hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+        }
+        if (tail.remaining() >= 4) {
+            hash ^= (tail.getInt() & 0xFFFFFFFFL) * PRIME1;
+            hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+        }
+        while (tail.hasRemaining()) {
+            hash ^= (tail.get() & 0xFF) * PRIME5;
+            hash = Long.rotateLeft(hash, 11) * PRIME1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long round(long accumulator, long input) {
+        accumulator += input * PRIME2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME1 + PRIME4;
+    }
+}
@@ -0,0 +1,157 @@
+package com.oxidesales.voskTranscriber;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Server and client over loopback, with ByteCountSessionDecoder in place of a model
+class TranscriptionServerTest {
+
+    private static final int UTTERANCE_BYTES = Transcriber.BYTES_PER_SECOND;
+
+    private TranscriptionServer server;
+
+    private TranscriptionServer startServer(int maxSessions, long maxSessionMillis) throws IOException {
+        server = new TranscriptionServer(new InetSocketAddress("127.0.0.1", 0),
+                ByteCountSessionDecoder.factory(UTTERANCE_BYTES),
+                new ServerLimits(maxSessions, 3600, maxSessionMillis, 100));
+        server.start();
+        return server;
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void streamsResultsBackAsNdjson() throws IOException {
+        startServer(4, 60_000);
+        TranscriptionClient client = new TranscriptionClient("127.0.0.1", server.getAddress().getPort());
+        RecordingListener listener = new RecordingListener(true);
+
+        // Two and a half utterances
+        client.transcribe(new ByteArrayInputStream(new byte[UTTERANCE_BYTES * 5 / 2]), listener);
+
+        assertEquals(List.of(ByteCountSessionDecoder.describe(UTTERANCE_BYTES),
+                ByteCountSessionDecoder.describe(UTTERANCE_BYTES),
+                ByteCountSessionDecoder.describe(UTTERANCE_BYTES / 2)), listener.finals);
+        assertFalse(listener.partials.isEmpty());
+        assertTrue(listener.errors.isEmpty());
+        assertEquals(1, server.getSessionsStarted());
+    }
+
+    @Test
+    void skipsPartialsWhenTheClientDoesNotWantThem() throws IOException {
+        startServer(4, 60_000);
+        TranscriptionClient client = new TranscriptionClient("127.0.0.1", server.getAddress().getPort());
+        RecordingListener listener = new RecordingListener(false);
+
+        client.transcribe(new ByteArrayInputStream(new byte[UTTERANCE_BYTES * 3 / 2]), listener);
+
+        assertEquals(2, listener.finals.size());
+        assertTrue(listener.partials.isEmpty());
+    }
+
+    @Test
+    void rejectsSessionsOverTheLimit() throws Exception {
+        startServer(1, 60_000);
+        try (Socket holder = openSession(server.getAddress().getPort())) {
+            awaitActiveSessions(1);
+            assertTrue(holder.isConnected());
+
+            TranscriptionClient client = new TranscriptionClient("127.0.0.1", server.getAddress().getPort());
+            RecordingListener listener = new RecordingListener(true);
+            IOException refused = assertThrows(IOException.class,
+                    () -> client.transcribe(new ByteArrayInputStream(new byte[UTTERANCE_BYTES]), listener));
+
+            assertTrue(refused.getMessage().contains("503"), refused.getMessage());
+            assertEquals(1, server.getSessionsRejected());
+        }
+    }
+
+    @Test
+    void cutsOffAClientThatStopsSending() throws Exception {
+        startServer(1, 200);
+        try (Socket idle = openSession(server.getAddress().getPort())) {
+            awaitActiveSessions(1);
+            idle.setSoTimeout(10_000);
+
+            // Only the headers and the empty body start arrive, then the server closes the connection
+            InputStream response = idle.getInputStream();
+            byte[] buffer = new byte[1024];
+            long startedAt = System.currentTimeMillis();
+            while (response.read(buffer) != -1) {
+                // Draining until the cut-off
+            }
+
+            assertTrue(System.currentTimeMillis() - startedAt < 10_000);
+            awaitActiveSessions(0);
+        }
+    }
+
+    // Request headers and no body, the session stays open until the server ends it
+    private static Socket openSession(int port) throws IOException {
+        Socket socket = new Socket("127.0.0.1", port);
+        String request = "POST " + TranscriptionServer.TRANSCRIBE_PATH + " HTTP/1.1\r\n"
+                + "Host: 127.0.0.1:" + port + "\r\n"
+                + "Transfer-Encoding: chunked\r\n\r\n";
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+        return socket;
+    }
+
+    private void awaitActiveSessions(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (server.getActiveSessions() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, server.getActiveSessions());
+    }
+
+    private static class RecordingListener implements TranscriptionClient.Listener {
+        private final boolean partialsWanted;
+        private final List<String> partials = new ArrayList<>();
+        private final List<String> finals = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+
+        private RecordingListener(boolean partialsWanted) {
+            this.partialsWanted = partialsWanted;
+        }
+
+        @Override
+        public boolean wantsPartials() {
+            return partialsWanted;
+        }
+
+        @Override
+        public void onPartial(String text) {
+            partials.add(text);
+        }
+
+        @Override
+        public void onFinal(String text) {
+            finals.add(text);
+        }
+
+        @Override
+        public void onError(String message) {
+            errors.add(message);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.oxidesales.voskTranscriber;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// WordBatchWriter to WordBatchReader and back, no model involved
+class WordBatchRoundTripTest {
+
+    private static final double CONFIDENCE_STEP = 1.0 / 65535;
+
+    @Test
+    void keepsWordsTimesAndConfidences() throws IOException {
+        WordBatch batch = new WordBatch(8);
+        assertTrue(batch.add("hello", 1.25, 1.5, 0.9f));
+        assertTrue(batch.add("world", 1.5, 2.0, 1.0f));
+        assertTrue(batch.add("hello", 2.75, 3.0, 0.0f));
+
+        List<WordBatch> read = roundTrip(List.of(batch));
+
+        assertEquals(1, read.size());
+        WordBatch copy = read.get(0);
+        assertEquals(3, copy.size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(batch.word(i), copy.word(i));
+            assertEquals(batch.startMillis(i), copy.startMillis(i));
+            assertEquals(batch.endMillis(i), copy.endMillis(i));
+        }
+        // The repeated word is stored once
+        assertEquals(2, copy.getDictionary().size());
+    }
+
+    @Test
+    void keepsStartsThatGoBackwards() throws IOException {
+        // Overlapping words from a rebased recognizer, the second delta is negative
+        WordBatch batch = new WordBatch(8);
+        assertTrue(batch.add("one", 1.0, 1.5, 0.5f));
+        assertTrue(batch.add("two", 3.0, 3.5, 0.5f));
+        assertTrue(batch.add("three", 2.0, 2.25, 0.5f));
+
+        WordBatch copy = roundTrip(List.of(batch)).get(0);
+
+        assertEquals(1000, copy.startMillis(0));
+        assertEquals(3000, copy.startMillis(1));
+        assertEquals(2000, copy.startMillis(2));
+        assertEquals(2250, copy.endMillis(2));
+    }
+
+    @Test
+    void quantisesConfidencesTo16Bits() throws IOException {
+        float[] confidences = {0f, 0.123456f, 0.5f, 0.999999f, 1f, -0.5f, 1.5f};
+        WordBatch batch = new WordBatch(confidences.length);
+        for (int i = 0; i < confidences.length; i++) {
+            assertTrue(batch.add("w" + i, i, i + 0.5, confidences[i]));
+        }
+
+        WordBatch copy = roundTrip(List.of(batch)).get(0);
+
+        for (int i = 0; i < confidences.length; i++) {
+            double expected = Math.max(0, Math.min(1, confidences[i]));
+            assertEquals(expected, copy.confidence(i), CONFIDENCE_STEP, "confidence " + i);
+        }
+        assertEquals(0f, copy.confidence(0));
+        assertEquals(1f, copy.confidence(4));
+    }
+
+    @Test
+    void rollsOverIntoNewBatchesAndKeepsTheSource() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        long collected;
+        try (WordBatchWriter writer = new WordBatchWriter(bytes)) {
+            WordCollector live = new WordCollector(writer::write, 2, 0);
+            WordCollector file = new WordCollector(writer::write, 2, 7);
+            VoskResultDecoder resultDecoder = new VoskResultDecoder();
+
+            resultDecoder.decode(result("a", 0.0, "b", 0.5, "c", 1.0));
+            live.collect(resultDecoder, seconds -> seconds + 10);
+            resultDecoder.decode(result("x", 0.25, "y", 0.75, "z", 1.25));
+            file.collect(resultDecoder, seconds -> seconds);
+            live.flush();
+            file.flush();
+            collected = live.getWordCount() + file.getWordCount();
+        }
+
+        List<WordBatch> batches = readAll(bytes.toByteArray());
+
+        // Capacity 2: two batches per collector, the full one first
+        assertEquals(4, batches.size());
+        assertEquals(6, collected);
+        assertEquals(List.of("a", "b"), words(batches.get(0)));
+        assertEquals(0, batches.get(0).getSourceId());
+        assertEquals(List.of("x", "y"), words(batches.get(1)));
+        assertEquals(7, batches.get(1).getSourceId());
+        assertEquals(List.of("c"), words(batches.get(2)));
+        assertEquals(0, batches.get(2).getSourceId());
+        assertEquals(11000, batches.get(2).startMillis(0));
+        assertEquals(List.of("z"), words(batches.get(3)));
+        assertEquals(7, batches.get(3).getSourceId());
+        assertEquals(1250, batches.get(3).startMillis(0));
+    }
+
+    @Test
+    void rejectsSomethingThatIsNotABatch() {
+        WordBatchReader reader = new WordBatchReader(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}));
+        assertThrows(IOException.class, reader::next);
+    }
+
+    @Test
+    void skipsEmptyBatches() throws IOException {
+        List<WordBatch> read = roundTrip(List.of(new WordBatch(4)));
+        assertTrue(read.isEmpty());
+    }
+
+    private static List<WordBatch> roundTrip(List<WordBatch> batches) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (WordBatchWriter writer = new WordBatchWriter(bytes)) {
+            for (WordBatch batch : batches) {
+                writer.write(batch);
+            }
+        }
+        return readAll(bytes.toByteArray());
+    }
+
+    private static List<WordBatch> readAll(byte[] bytes) throws IOException {
+        List<WordBatch> batches = new ArrayList<>();
+        try (WordBatchReader reader = new WordBatchReader(new ByteArrayInputStream(bytes))) {
+            WordBatch batch;
+            while ((batch = reader.next()) != null) {
+                assertFalse(batch.isEmpty());
+                batches.add(batch);
+            }
+            assertNull(reader.next());
+        }
+        return batches;
+    }
+
+    private static List<String> words(WordBatch batch) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            words.add(batch.word(i));
+        }
+        return words;
+    }
+
+    // A Vosk final result with half-second words at the given starts
+    private static String result(String first, double firstStart, String second, double secondStart,
+                                 String third, double thirdStart) {
+        return "{\"result\":["
+                + word(first, firstStart) + "," + word(second, secondStart) + "," + word(third, thirdStart)
+                + "],\"text\":\"" + first + " " + second + " " + third + "\"}";
+    }
+
+    private static String word(String word, double start) {
+        return "{\"conf\":1.0,\"end\":" + (start + 0.5) + ",\"start\":" + start + ",\"word\":\"" + word + "\"}";
+    }
+}